@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import com.uc.wms.lock.CoalescingLockManager;
+import com.uc.wms.lock.DistributedLock;
+import com.uc.wms.lock.LockPaths;
+import com.uc.wms.lock.LockingClient;
+import com.uc.wms.lock.ShardedLockingClient;
+import org.apache.curator.test.TestingServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lock/unlock round trips against in-process zookeeper ensembles, sampled for percentiles. Few keys means contention,
+ * many keys means mostly uncontended locks. Keys are spread over 16 tenants, which is what shards across ensembles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class DistributedLockBenchmark {
+
+    @Param({ "1", "16", "1024" })
+    private int                                       keys;
+
+    @Param({ "DistributedLock", "CoalescedLock" })
+    private String                                    lockType;
+
+    @Param({ "1", "3" })
+    private int                                       ensembles;
+
+    private List<TestingServer>                       servers;
+
+    private ShardedLockingClient                      clients;
+
+    /* coalescing is per ensemble, like LockingClient#setLockCoalescing */
+    private Map<LockingClient, CoalescingLockManager> managers;
+
+    private String[]                                  paths;
+
+    @Setup
+    public void setUp() throws Exception {
+        servers = new ArrayList<>(ensembles);
+        List<LockingClient> shards = new ArrayList<>(ensembles);
+        for (int i = 0; i < ensembles; i++) {
+            TestingServer server = new TestingServer(true);
+            servers.add(server);
+            shards.add(new LockingClient(server.getConnectString(), 30000, 10000));
+        }
+        clients = new ShardedLockingClient(shards, 0, 0);
+        managers = new HashMap<>();
+        for (LockingClient shard : shards) {
+            managers.put(shard, new CoalescingLockManager(shard));
+        }
+        paths = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            paths[i] = LockPaths.getLockPath(Level.TENANT, Namespace.SALE_ORDER, "tenant" + (i % 16), "SO-" + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        for (CoalescingLockManager manager : managers.values()) {
+            manager.close();
+        }
+        clients.close();
+        clients.getPrimary().close();
+        for (TestingServer server : servers) {
+            server.close();
+        }
+    }
+
+    @Benchmark
+    public void lockUnlock() {
+        String path = paths[ThreadLocalRandom.current().nextInt(keys)];
+        LockingClient client = clients.getClient(path);
+        Lock lock = "CoalescedLock".equals(lockType) ? managers.get(client).getLock(path, "benchmark") : new DistributedLock(client, path, "benchmark");
+        lock.lock();
+        lock.unlock();
+    }
+}
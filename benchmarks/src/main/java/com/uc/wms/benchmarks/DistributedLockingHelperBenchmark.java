@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.uc.wms.lock.DistributedLockingHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per lock bookkeeping of {@link DistributedLockingHelper}, paid twice by every acquisition, from many threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class DistributedLockingHelperBenchmark {
+
+    private static final String            PATH   = "/TENANT/SALE_ORDER/benchmark/SO-000123";
+
+    private final DistributedLockingHelper helper = new DistributedLockingHelper();
+
+    @Benchmark
+    public boolean addAndRemove() {
+        boolean added = helper.addCurrentThreadMetadata(PATH);
+        helper.removeCurrentThreadMetadata(PATH);
+        return added;
+    }
+
+    @Benchmark
+    public boolean isConnectionInterrupted() {
+        return helper.isConnectionInterrupted();
+    }
+}
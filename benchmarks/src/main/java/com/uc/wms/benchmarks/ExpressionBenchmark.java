@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.uc.wms.expressions.Expression;
+import com.uc.wms.expressions.RuleSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * {@link Expression#compile(String)} and evaluation, for lock keys and order rules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpressionBenchmark {
+
+    private static final int          BATCH_SIZE = 1000;
+
+    private static final int          RULE_COUNT = 50;
+
+    private static final String[]     CHANNELS   = { "AMAZON", "FLIPKART", "MYNTRA", "AJIO", "CUSTOM" };
+
+    private static final String       LOCK_KEY   = "#{#args[0]}";
+
+    private static final String       NESTED_KEY = "#{#args[0].picklistCode}";
+
+    private static final String       COD_RULE   = "#{new java.math.BigDecimal(#sellingPrice) > 25000 and #paymentMethod.toUpperCase().trim() == 'COD'}";
+
+    private Expression                lockKey;
+
+    private Expression                nestedKey;
+
+    private Expression                codRule;
+
+    private Object[]                  args;
+
+    private Map<String, Object>       argsContext;
+
+    private Map<String, Object>       orderContext;
+
+    private List<Map<String, Object>> orderContexts;
+
+    private List<Expression>          routingRules;
+
+    private RuleSet                   routingRuleSet;
+
+    private Map<String, Object>       routingContext;
+
+    @Setup
+    public void setUp() {
+        lockKey = Expression.compile(LOCK_KEY);
+        nestedKey = Expression.compile(NESTED_KEY);
+        codRule = Expression.compile(COD_RULE);
+        args = new Object[] { new Picklist("PL-000123") };
+        argsContext = Collections.<String, Object> singletonMap("args", new Object[] { "SO-000123" });
+        orderContext = new HashMap<>();
+        orderContext.put("sellingPrice", 25432);
+        orderContext.put("paymentMethod", "cod ");
+        orderContexts = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Map<String, Object> context = new HashMap<>();
+            context.put("sellingPrice", 24500 + i);
+            context.put("paymentMethod", i % 2 == 0 ? "cod " : "prepaid");
+            orderContexts.add(context);
+        }
+        Map<String, String> rules = new LinkedHashMap<>();
+        for (int i = 0; i < RULE_COUNT; i++) {
+            rules.put("rule" + i, "#{#channel == '" + CHANNELS[i % CHANNELS.length] + "' and #paymentMethod == '" + (i % 2 == 0 ? "COD" : "PREPAID")
+                    + "' and #sellingPrice > " + (i * 1000) + "}");
+        }
+        routingRules = new ArrayList<>(RULE_COUNT);
+        for (String rule : rules.values()) {
+            routingRules.add(Expression.compile(rule));
+        }
+        routingRuleSet = new RuleSet(rules);
+        routingContext = new HashMap<>();
+        routingContext.put("channel", "AMAZON");
+        routingContext.put("paymentMethod", "COD");
+        routingContext.put("sellingPrice", 25432);
+    }
+
+    /* baseline, what every lock acquisition paid before expressions were cached */
+    @Benchmark
+    public Object parseUncached() {
+        return new SpelExpressionParser().parseExpression(LOCK_KEY, ParserContext.TEMPLATE_EXPRESSION);
+    }
+
+    @Benchmark
+    public Expression compileCached() {
+        return Expression.compile(LOCK_KEY);
+    }
+
+    @Benchmark
+    public Object evaluateArgumentReference() {
+        return lockKey.evaluate(argsContext);
+    }
+
+    @Benchmark
+    public Object evaluateNestedProperty() {
+        return nestedKey.evaluateArguments(args);
+    }
+
+    @Benchmark
+    public Object evaluateRule() {
+        return codRule.evaluate(orderContext);
+    }
+
+    /* per order, the rule over a bulk import */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long evaluateRuleBatch() {
+        return codRule.evaluateAll(orderContexts, Boolean.class, false).filter(Boolean.TRUE::equals).count();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long evaluateRuleBatchParallel() {
+        return codRule.evaluateAll(orderContexts, Boolean.class, true).filter(Boolean.TRUE::equals).count();
+    }
+
+    /* baseline for the rule set, every routing rule on its own */
+    @Benchmark
+    public int evaluateRulesOneByOne() {
+        int matches = 0;
+        for (Expression rule : routingRules) {
+            if (Boolean.TRUE.equals(rule.evaluate(routingContext, Boolean.class))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int evaluateRuleSet() {
+        return routingRuleSet.match(routingContext).cardinality();
+    }
+
+    public static class Picklist {
+        private final String picklistCode;
+
+        Picklist(String picklistCode) {
+            this.picklistCode = picklistCode;
+        }
+
+        public String getPicklistCode() {
+            return picklistCode;
+        }
+    }
+}
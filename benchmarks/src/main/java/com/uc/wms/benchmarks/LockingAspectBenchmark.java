@@ -0,0 +1,191 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.annotation.Locks;
+import com.uc.wms.aspect.LockingAspect;
+import com.uc.wms.aspect.locking.ILockingService;
+import com.uc.wms.aspect.locking.LockRequest;
+import com.uc.wms.aspect.locking.Namespace;
+import com.uc.wms.lock.LockHandle;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link LockingAspect} around a no-op method with a no-op locking service, i.e. everything the aspect adds
+ * on top of zookeeper. Run with {@code -prof gc} for the allocation profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockingAspectBenchmark {
+
+    private LockingAspect       aspect;
+
+    private ProceedingJoinPoint singleLockJoinPoint;
+
+    private Locks               singleLock;
+
+    private ProceedingJoinPoint multiLockJoinPoint;
+
+    private Locks               multiLock;
+
+    @Setup
+    public void setUp() throws Exception {
+        aspect = new LockingAspect();
+        Field lockingService = LockingAspect.class.getDeclaredField("lockingService");
+        lockingService.setAccessible(true);
+        lockingService.set(aspect, new NoOpLockingService());
+
+        Method single = AnnotatedService.class.getMethod("updateSaleOrder", String.class);
+        singleLock = single.getAnnotation(Locks.class);
+        singleLockJoinPoint = joinPoint(single, new Object[] { "SO-000123" });
+
+        Method multi = AnnotatedService.class.getMethod("packShipment", String.class, String.class, String.class);
+        multiLock = multi.getAnnotation(Locks.class);
+        multiLockJoinPoint = joinPoint(multi, new Object[] { "PL-1", "PB/1", "SP-1" });
+    }
+
+    @Benchmark
+    public Object singleLock() throws Throwable {
+        return aspect.executeAfterLock(singleLockJoinPoint, singleLock);
+    }
+
+    @Benchmark
+    public Object threeLocks() throws Throwable {
+        return aspect.executeAfterLock(multiLockJoinPoint, multiLock);
+    }
+
+    private static ProceedingJoinPoint joinPoint(Method method, Object[] args) {
+        MethodSignature signature = (MethodSignature) Proxy.newProxyInstance(LockingAspectBenchmark.class.getClassLoader(), new Class<?>[] { MethodSignature.class },
+                (proxy, invoked, invokedArgs) -> "getMethod".equals(invoked.getName()) ? method : null);
+        return (ProceedingJoinPoint) Proxy.newProxyInstance(LockingAspectBenchmark.class.getClassLoader(), new Class<?>[] { ProceedingJoinPoint.class },
+                (proxy, invoked, invokedArgs) -> {
+                    switch (invoked.getName()) {
+                        case "getSignature":
+                            return signature;
+                        case "getArgs":
+                            return args.clone();
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    public static class AnnotatedService {
+
+        @Locks({ @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[0]}") })
+        public void updateSaleOrder(String saleOrderCode) {
+        }
+
+        @Locks({ @com.uc.wms.annotation.Lock(ns = Namespace.PICKLIST, key = "#{#args[0]}", level = Level.FACILITY),
+                @com.uc.wms.annotation.Lock(ns = Namespace.PICK_BUCKET, key = "#{#args[1]}", level = Level.FACILITY),
+                @com.uc.wms.annotation.Lock(ns = Namespace.SHIPPING_PACKAGE, key = "#{#args[2]}", level = Level.FACILITY) })
+        public void packShipment(String picklistCode, String pickBucketCode, String shippingPackageCode) {
+        }
+    }
+
+    private static final class NoOpLock implements Lock {
+
+        static final NoOpLock INSTANCE = new NoOpLock();
+
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void lockInterruptibly() {
+        }
+
+        @Override
+        public boolean tryLock() {
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class NoOpLockingService implements ILockingService {
+
+        @Override
+        public ReadWriteLock getReadWriteLock(Namespace namespace, String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ReadWriteLock getReadWriteLock(Namespace namespace, String key, Level level) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Lock getLock(Namespace namespace, String key) {
+            return NoOpLock.INSTANCE;
+        }
+
+        @Override
+        public Lock getLock(Namespace namespace, String key, Level level) {
+            return NoOpLock.INSTANCE;
+        }
+
+        @Override
+        public Lock getLock(Namespace namespace, String key, Level level, String lockSection) {
+            return NoOpLock.INSTANCE;
+        }
+
+        @Override
+        public Lock getMultiLock(List<LockRequest> requests, String lockSection) {
+            return NoOpLock.INSTANCE;
+        }
+
+        @Override
+        public CompletableFuture<LockHandle> acquireAsync(Namespace namespace, String key, Level level, long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isConnectionInterrupted() {
+            return false;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import com.uc.wms.aspect.locking.Namespace;
+import com.uc.wms.lock.LockMode;
 
 import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
@@ -49,6 +50,32 @@ public @interface Lock {
      */
     String key();
 
+    /**
+     * Number of holders allowed at once on the key across the cluster, backed by a zookeeper semaphore when more than
+     * 1. 0 would imply the permits configured for the namespace, see
+     * {@link com.uc.wms.aspect.locking.ILockingService#getPermits}.
+     *
+     * @return
+     */
+    int permits() default 0;
+
+    /**
+     * Take a multi-granularity lock in {@link #mode()} instead of a mutex, see
+     * {@link com.uc.wms.aspect.locking.ILockingService#getHierarchicalLock}. A key evaluating to an empty string locks
+     * the granule of the level itself, e.g. the whole tenant. Hierarchical locks only exclude each other, they are not
+     * reentrant and can not take permits.
+     *
+     * @return
+     */
+    boolean hierarchical() default false;
+
+    /**
+     * Mode of a {@link #hierarchical()} lock.
+     *
+     * @return
+     */
+    LockMode mode() default LockMode.X;
+
     /**
      * Do or do not log time taken in acquiring/releasing locks.
      * 
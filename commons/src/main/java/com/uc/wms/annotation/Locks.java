@@ -19,4 +19,14 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 public @interface Locks {
 
     Lock[] value() default {};
+
+    /**
+     * Take all the locks at once through {@link com.uc.wms.aspect.locking.ILockingService#getMultiLock} instead of one
+     * after another in declaration order. The method waits for the longest timeout among the locks, or forever if any
+     * of them waits forever. Implied when any lock is on a namespace with lock escalation, unless some lock takes a
+     * semaphore or is hierarchical.
+     *
+     * @return
+     */
+    boolean together() default false;
 }
@@ -1,18 +1,27 @@
-
-
 package com.uc.wms.aspect;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
 
+import com.uc.wms.annotation.Level;
 import com.uc.wms.aspect.locking.ILockingService;
 import com.uc.wms.annotation.Locks;
+import com.uc.wms.aspect.locking.LockRequest;
+import com.uc.wms.aspect.locking.LockTimeouts;
+import com.uc.wms.aspect.locking.Namespace;
 import com.uc.wms.expressions.Expression;
+import com.uc.wms.lock.HotLockKeys;
+import com.uc.wms.lock.LockEvents;
+import com.uc.wms.lock.LockMetrics;
+import com.uc.wms.lock.LockMode;
+import com.uc.wms.lock.LockPaths;
+import com.uc.wms.lock.OptimisticLockPolicy;
 import com.uc.wms.lock.exception.LockingException;
 
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -22,80 +31,96 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 @Aspect
 public class LockingAspect {
 
-    private static final Logger LOG = LoggerFactory.getLogger(LockingAspect.class);
+    private static final Logger                     LOG       = LoggerFactory.getLogger(LockingAspect.class);
 
     @Autowired
-    private ILockingService lockingService;
+    private ILockingService                         lockingService;
+
+    @Autowired(required = false)
+    private LockTimeouts                            lockTimeouts;
+
+    private final ConcurrentMap<Method, LockPlan[]> lockPlans = new ConcurrentHashMap<>();
 
     @Around("execution(* *(..)) && @annotation(locksAnnotation)")
     public Object executeAfterLock(ProceedingJoinPoint pjp, Locks locksAnnotation) throws Throwable {
-        int numLocks = locksAnnotation.value().length;
-        List<Lock> locksTaken = new ArrayList<>(numLocks);
-        Map<String, Object> contextParams = new HashMap<>(1);
-        contextParams.put("args", pjp.getArgs());
-        MethodSignature ms = (MethodSignature) pjp.getSignature();
+        LockPlan[] plans = getLockPlans(((MethodSignature) pjp.getSignature()).getMethod(), locksAnnotation);
+        OptimisticLockPolicy[] policies = getActiveOptimisticPolicies(plans);
+        if (policies != null) {
+            return executeOptimistically(pjp, locksAnnotation, plans, policies);
+        }
+        return executeLocked(pjp, locksAnnotation, plans);
+    }
+
+    private Object executeLocked(ProceedingJoinPoint pjp, Locks locksAnnotation, LockPlan[] plans) throws Throwable {
+        int numLocks = plans.length;
+        Object[] args = pjp.getArgs();
+        // keys of escalated namespaces one at a time could deadlock against bulk locks, see LockEscalation
+        if (numLocks > 1 && (locksAnnotation.together() || hasEscalations(plans)) && !hasNonMutexes(plans)) {
+            return executeAfterMultiLock(pjp, plans, args);
+        }
+        Lock[] locksTaken = new Lock[numLocks];
+        int numLocksTaken = 0;
         boolean log = false;
         try {
             Lock lock = null;
-            for (com.uc.wms.annotation.Lock lockAnnotation : locksAnnotation.value()) {
-                Object lockKeyObj = Expression.compile(lockAnnotation.key()).evaluate(contextParams);
-                String lockKey;
-                if (lockKeyObj == null) {
-                    throw new IllegalArgumentException("Failed to evaluate lock expression");
-                } else {
-                    String originalLockKey = lockKeyObj.toString();
-                    lockKey = originalLockKey.replaceAll("[^a-zA-Z0-9_]", "_");
-                    if (!lockKey.equals(originalLockKey)) {
-                        LOG.info("Modified lockKey to: {} from: {}", lockKey, originalLockKey);
-                    }
-                }
-                lock = lockingService.getLock(lockAnnotation.ns(), lockKey, lockAnnotation.level(), ms.getMethod().getName());
-                long timeout = lockAnnotation.timeoutInSeconds();
+            for (LockPlan plan : plans) {
+                String lockKey = plan.getLockKey(args);
+                lock = getLock(plan, lockKey);
                 long start = System.currentTimeMillis();
-                if (timeout == -1) {
-                    if (lockAnnotation.log()) {
-                        LOG.info("Acquiring lock on namespace: {} and key: {} without timeout", lockAnnotation.ns(), lockKey);
+                Object event = LockEvents.beginWait();
+                if (plan.timeoutInSeconds == -1) {
+                    if (plan.log) {
+                        LOG.info("Acquiring lock on namespace: {} and key: {} without timeout", plan.namespace, lockKey);
+                    }
+                    boolean acquired = false;
+                    try {
+                        lock.lock();
+                        acquired = true;
+                    } finally {
+                        LockEvents.waited(event, plan.namespace, plan.level, lockKey, plan.section, acquired);
+                        HotLockKeys.record(plan.namespace, lockKey, System.currentTimeMillis() - start);
                     }
-                    lock.lock();
-                    if (lockAnnotation.log()) {
+                    if (plan.log) {
                         log = true;
-                        LOG.info("Lock acquired on namespace: {} and key: {} in {} ms", lockAnnotation.ns(), lockKey,
+                        LOG.info("Lock acquired on namespace: {} and key: {} in {} ms", plan.namespace, lockKey,
                                 System.currentTimeMillis() - start);
                     }
-                    locksTaken.add(lock);
+                    locksTaken[numLocksTaken++] = lock;
                 } else {
-                    if (timeout == Long.MIN_VALUE) {
-                        timeout = getLockWaitTimeoutInSeconds();
-                    }
-                    if (lockAnnotation.log()) {
-                        LOG.info("Acquiring lock on namespace: {} and key: {} with timeout: {} sec", new Object[] { lockAnnotation.ns(), lockKey, timeout });
+                    if (plan.log) {
+                        LOG.info("Acquiring lock on namespace: {} and key: {} with timeout: {} sec", new Object[] { plan.namespace, lockKey, plan.timeoutInSeconds });
                     }
-                    if (lock.tryLock(timeout, TimeUnit.SECONDS)) {
-                        if (lockAnnotation.log()) {
+                    boolean acquired = lock.tryLock(plan.timeoutInSeconds, TimeUnit.SECONDS);
+                    LockEvents.waited(event, plan.namespace, plan.level, lockKey, plan.section, acquired);
+                    HotLockKeys.record(plan.namespace, lockKey, System.currentTimeMillis() - start);
+                    if (acquired) {
+                        if (plan.log) {
                             log = true;
-                            LOG.info("Lock acquired on namespace: {} and key: {} in {} ms", new Object[] { lockAnnotation.ns(), lockKey, System.currentTimeMillis() - start });
+                            LOG.info("Lock acquired on namespace: {} and key: {} in {} ms", new Object[] { plan.namespace, lockKey, System.currentTimeMillis() - start });
                         }
-                        locksTaken.add(lock);
+                        locksTaken[numLocksTaken++] = lock;
                     } else {
-                        if (lockAnnotation.log()) {
-                            LOG.info("Unable to acquire lock on namespace: {} and key: {} in {} ms", lockAnnotation.ns(), lockKey, (System.currentTimeMillis() - start));
+                        if (plan.log) {
+                            LOG.info("Unable to acquire lock on namespace: {} and key: {} in {} ms", plan.namespace, lockKey, (System.currentTimeMillis() - start));
                         }
                         break;
                     }
                 }
             }
-            if (locksTaken.size() == numLocks) {
+            if (numLocksTaken == numLocks) {
                 return pjp.proceed();
             } else {
                 LOG.error("Failed to obtain lock for request, {} ", lock);
                 throw new LockingException("Failed to obtain lock. " + lock);
             }
         } finally {
-            for (Lock lock : locksTaken) {
+            for (int i = 0; i < numLocksTaken; i++) {
+                Lock lock = locksTaken[i];
                 try {
                     long start = System.currentTimeMillis();
                     lock.unlock();
@@ -109,7 +134,215 @@ public class LockingAspect {
         }
     }
 
-    private long getLockWaitTimeoutInSeconds() {
-        return 60;
+    private Object executeAfterMultiLock(ProceedingJoinPoint pjp, LockPlan[] plans, Object[] args) throws Throwable {
+        List<LockRequest> requests = new ArrayList<>(plans.length);
+        long timeout = 0;
+        boolean log = false;
+        for (LockPlan plan : plans) {
+            requests.add(new LockRequest(plan.namespace, plan.getLockKey(args), plan.level));
+            // -1 waits forever, which outlasts any timeout
+            timeout = timeout == -1 || plan.timeoutInSeconds == -1 ? -1 : Math.max(timeout, plan.timeoutInSeconds);
+            log |= plan.log;
+        }
+        Lock lock = lockingService.getMultiLock(requests, plans[0].section);
+        long start = System.currentTimeMillis();
+        if (log) {
+            LOG.info("Acquiring locks on: {} with timeout: {} sec", requests, timeout);
+        }
+        Object event = LockEvents.beginWait();
+        boolean acquired = false;
+        try {
+            if (timeout == -1) {
+                lock.lock();
+                acquired = true;
+            } else {
+                acquired = lock.tryLock(timeout, TimeUnit.SECONDS);
+            }
+        } finally {
+            LockEvents.waited(event, plans[0].namespace, plans[0].level, requests, plans[0].section, acquired);
+            long waitMs = System.currentTimeMillis() - start;
+            for (LockRequest request : requests) {
+                HotLockKeys.record(request.getNamespace(), request.getKey(), waitMs);
+            }
+        }
+        if (!acquired) {
+            if (log) {
+                LOG.info("Unable to acquire locks on: {} in {} ms", requests, (System.currentTimeMillis() - start));
+            }
+            LOG.error("Failed to obtain lock for request, {} ", lock);
+            throw new LockingException("Failed to obtain lock. " + lock);
+        }
+        if (log) {
+            LOG.info("Locks acquired on: {} in {} ms", requests, System.currentTimeMillis() - start);
+        }
+        try {
+            return pjp.proceed();
+        } finally {
+            try {
+                start = System.currentTimeMillis();
+                lock.unlock();
+                if (log) {
+                    LOG.info("Released lock on path: {} in {} ms", lock.toString(), System.currentTimeMillis() - start);
+                }
+            } catch (Throwable t) {
+                LOG.error("[FATAL] Failed to release lock on path: {}", lock.toString(), t);
+            }
+        }
+    }
+
+    /**
+     * Runs the method without locks, again after a backoff whenever its version-checked write conflicts, and under the
+     * locks for the last attempt. Optimistic attempts elsewhere can still conflict with the last one, whose exception
+     * is then thrown. The first lock's policy paces the attempts, every lock's policy sees every outcome.
+     */
+    private Object executeOptimistically(ProceedingJoinPoint pjp, Locks locksAnnotation, LockPlan[] plans, OptimisticLockPolicy[] policies) throws Throwable {
+        OptimisticLockPolicy policy = policies[0];
+        for (int attempt = 1; !policy.isLastAttempt(attempt); attempt++) {
+            try {
+                Object result = pjp.proceed();
+                onOptimisticAttempt(plans, policies, false);
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                onOptimisticAttempt(plans, policies, true);
+                LOG.debug("Version conflict in attempt: {} of {}, retrying", attempt, pjp.getSignature(), e);
+            }
+            try {
+                policy.backoff(attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new LockingException(e);
+            }
+        }
+        Object result;
+        try {
+            result = executeLocked(pjp, locksAnnotation, plans);
+        } catch (OptimisticLockingFailureException e) {
+            onOptimisticAttempt(plans, policies, true);
+            throw e;
+        }
+        onOptimisticAttempt(plans, policies, false);
+        return result;
+    }
+
+    /* policies of the locks if every one of them is optimistic right now, null otherwise */
+    private OptimisticLockPolicy[] getActiveOptimisticPolicies(LockPlan[] plans) {
+        OptimisticLockPolicy[] policies = null;
+        for (int i = 0; i < plans.length; i++) {
+            OptimisticLockPolicy policy = lockingService.getOptimisticLockPolicy(plans[i].namespace);
+            if (policy == null || !policy.isActive()) {
+                return null;
+            }
+            if (policies == null) {
+                policies = new OptimisticLockPolicy[plans.length];
+            }
+            policies[i] = policy;
+        }
+        return policies;
+    }
+
+    private static void onOptimisticAttempt(LockPlan[] plans, OptimisticLockPolicy[] policies, boolean conflicted) {
+        for (int i = 0; i < plans.length; i++) {
+            policies[i].onAttempt(conflicted);
+            LockMetrics.onOptimisticAttempt(plans[i].pathPrefix, conflicted);
+        }
+    }
+
+    private boolean hasEscalations(LockPlan[] plans) {
+        for (LockPlan plan : plans) {
+            if (lockingService.getLockEscalation(plan.namespace) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Lock getLock(LockPlan plan, String lockKey) {
+        if (plan.mode != null) {
+            return lockingService.getHierarchicalLock(plan.namespace, lockKey.isEmpty() ? null : lockKey, plan.level, plan.mode);
+        }
+        int permits = getPermits(plan);
+        return permits == 1 ? lockingService.getLock(plan.namespace, lockKey, plan.level, plan.section)
+                : lockingService.getSemaphore(plan.namespace, lockKey, plan.level, permits, plan.section);
+    }
+
+    /* semaphores and hierarchical locks can not be part of a multi lock, such methods take their locks one by one */
+    private boolean hasNonMutexes(LockPlan[] plans) {
+        for (LockPlan plan : plans) {
+            if (plan.mode != null || getPermits(plan) != 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int getPermits(LockPlan plan) {
+        return plan.permits > 0 ? plan.permits : lockingService.getPermits(plan.namespace);
+    }
+
+    private LockPlan[] getLockPlans(Method method, Locks locksAnnotation) {
+        LockPlan[] plans = lockPlans.get(method);
+        if (plans == null) {
+            com.uc.wms.annotation.Lock[] lockAnnotations = locksAnnotation.value();
+            plans = new LockPlan[lockAnnotations.length];
+            for (int i = 0; i < lockAnnotations.length; i++) {
+                plans[i] = new LockPlan(lockAnnotations[i], method.getName(), getLockWaitTimeoutInSeconds(lockAnnotations[i].ns(), lockAnnotations[i].level()));
+            }
+            LockPlan[] existing = lockPlans.putIfAbsent(method, plans);
+            if (existing != null) {
+                plans = existing;
+            }
+        }
+        return plans;
+    }
+
+    private long getLockWaitTimeoutInSeconds(Namespace namespace, Level level) {
+        return lockTimeouts == null ? LockTimeouts.DEFAULT_TIMEOUT_SECONDS : lockTimeouts.getTimeoutInSeconds(namespace, level);
+    }
+
+    /**
+     * Everything about a single {@link com.uc.wms.annotation.Lock} that does not depend on the invocation, resolved
+     * once per annotated method.
+     */
+    private static final class LockPlan {
+        private final Namespace  namespace;
+        private final Level      level;
+        private final long       timeoutInSeconds;
+        private final Expression keyExpression;
+        private final String     section;
+        private final String     pathPrefix;
+        private final boolean    log;
+        /* 0 for the namespace's permits */
+        private final int        permits;
+        /* null unless hierarchical */
+        private final LockMode   mode;
+
+        LockPlan(com.uc.wms.annotation.Lock lockAnnotation, String section, long defaultTimeoutInSeconds) {
+            this.namespace = lockAnnotation.ns();
+            this.level = lockAnnotation.level();
+            this.timeoutInSeconds = lockAnnotation.timeoutInSeconds() == Long.MIN_VALUE ? defaultTimeoutInSeconds : lockAnnotation.timeoutInSeconds();
+            this.keyExpression = Expression.compile(lockAnnotation.key());
+            this.section = section;
+            this.pathPrefix = LockPaths.getNamespacePath(level, namespace);
+            this.log = lockAnnotation.log();
+            this.permits = lockAnnotation.permits();
+            this.mode = lockAnnotation.hierarchical() ? lockAnnotation.mode() : null;
+            if (mode != null && permits > 1) {
+                throw new IllegalArgumentException("Hierarchical lock on namespace: " + namespace + " can not take permits: " + permits);
+            }
+        }
+
+        /* as evaluated, the locking service sanitizes it into the lock path; empty for the granule of a hierarchical lock */
+        String getLockKey(Object[] args) {
+            Object lockKeyObj = keyExpression.evaluateArguments(args);
+            if (lockKeyObj == null) {
+                throw new IllegalArgumentException("Failed to evaluate lock expression");
+            }
+            return lockKeyObj.toString();
+        }
+
+        @Override
+        public String toString() {
+            return pathPrefix + " [section: " + section + ", timeout: " + timeoutInSeconds + "s]";
+        }
     }
 }
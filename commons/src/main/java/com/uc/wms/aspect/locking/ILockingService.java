@@ -7,10 +7,21 @@
  */
 package com.uc.wms.aspect.locking;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Supplier;
 
 import com.uc.wms.annotation.Level;
+import com.uc.wms.lock.LockEscalation;
+import com.uc.wms.lock.LockHandle;
+import com.uc.wms.lock.LockMode;
+import com.uc.wms.lock.OptimisticLockPolicy;
+import com.uc.wms.lock.exception.LockingException;
 
 public interface ILockingService {
 
@@ -24,5 +35,146 @@ public interface ILockingService {
 
     Lock getLock(Namespace namespace, String key, Level level, String lockSection);
 
+    /**
+     * Lock held by up to {@code permits} threads at once across the cluster, with the timeout and interruption
+     * semantics of {@link #getLock}. One permit is a plain {@link #getLock}, the only kind supported by default.
+     *
+     * @param namespace
+     * @param key
+     * @param level
+     * @param permits
+     * @param lockSection
+     * @return
+     */
+    default Lock getSemaphore(Namespace namespace, String key, Level level, int permits, String lockSection) {
+        if (permits != 1) {
+            throw new UnsupportedOperationException("Semaphores not supported by " + getClass().getName());
+        }
+        return getLock(namespace, key, level, lockSection);
+    }
+
+    /**
+     * Permits of {@code @Lock}s on the namespace that do not set {@code permits}, 1 by default.
+     *
+     * @param namespace
+     * @return
+     */
+    default int getPermits(Namespace namespace) {
+        return 1;
+    }
+
+    /**
+     * Single lock over all the requests. Locks are taken in a canonical order, so callers listing the same locks in a
+     * different order can not deadlock each other, and released together.
+     *
+     * @param requests
+     * @param lockSection
+     * @return
+     */
+    Lock getMultiLock(List<LockRequest> requests, String lockSection);
+
+    /**
+     * Single lock over many keys of one namespace, e.g. the items of a batch. By default a {@link #getMultiLock} over
+     * the keys; implementations may take coarser locks instead.
+     *
+     * @param namespace
+     * @param level
+     * @param keys
+     * @param lockSection
+     * @return
+     */
+    default Lock getBulkLock(Namespace namespace, Level level, Collection<String> keys, String lockSection) {
+        List<LockRequest> requests = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            requests.add(new LockRequest(namespace, key, level));
+        }
+        return getMultiLock(requests, lockSection);
+    }
+
+    /**
+     * Runs the action holding the {@link #getBulkLock} of the keys.
+     *
+     * @param namespace
+     * @param level
+     * @param keys
+     * @param timeout negative to wait forever
+     * @param unit
+     * @param action
+     * @return result of the action
+     * @throws LockingException if the locks could not be taken in time
+     */
+    default <T> T withLocks(Namespace namespace, Level level, Collection<String> keys, long timeout, TimeUnit unit, Supplier<T> action) {
+        if (keys.isEmpty()) {
+            return action.get();
+        }
+        Lock lock = getBulkLock(namespace, level, keys, "");
+        if (timeout < 0) {
+            lock.lock();
+        } else {
+            try {
+                if (!lock.tryLock(timeout, unit)) {
+                    throw new LockingException("Failed to obtain lock. " + lock);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new LockingException(e);
+            }
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Multi-granularity lock over the {@code GLOBAL > TENANT > FACILITY} hierarchy of the namespace, see
+     * {@link LockMode}.
+     *
+     * @param namespace
+     * @param key lock key, sanitized by the service as for {@link #getLock}, null to lock the granule of the level itself
+     * @param level
+     * @param mode
+     * @return
+     */
+    default Lock getHierarchicalLock(Namespace namespace, String key, Level level, LockMode mode) {
+        throw new UnsupportedOperationException("Hierarchical locks not supported by " + getClass().getName());
+    }
+
+    /**
+     * Acquires the lock without blocking the calling thread while waiting. Ownership lives in the returned handle, which
+     * can be released from any thread. See {@link LockHandle#acquireAsync} for completion semantics.
+     *
+     * @param namespace
+     * @param key
+     * @param level
+     * @param timeout negative to wait forever
+     * @param unit
+     * @return
+     */
+    CompletableFuture<LockHandle> acquireAsync(Namespace namespace, String key, Level level, long timeout, TimeUnit unit);
+
     boolean isConnectionInterrupted();
+
+    /**
+     * Policy under which {@code @Locks} methods on the namespace run optimistically, see {@link OptimisticLockPolicy}.
+     * Null, the default, for zookeeper locks.
+     *
+     * @param namespace
+     * @return
+     */
+    default OptimisticLockPolicy getOptimisticLockPolicy(Namespace namespace) {
+        return null;
+    }
+
+    /**
+     * Escalation of the namespace's bulk locks to bucket locks, see {@link LockEscalation}. Null, the default, for
+     * none.
+     *
+     * @param namespace
+     * @return
+     */
+    default LockEscalation getLockEscalation(Namespace namespace) {
+        return null;
+    }
 }
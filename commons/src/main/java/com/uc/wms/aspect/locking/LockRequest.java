@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.aspect.locking;
+
+import com.uc.wms.annotation.Level;
+
+/**
+ * One namespace/key pair of a lock taken together with others, see
+ * {@link ILockingService#getMultiLock(java.util.List, String)}.
+ */
+public final class LockRequest {
+
+    private final Namespace namespace;
+
+    private final String    key;
+
+    private final Level     level;
+
+    public LockRequest(Namespace namespace, String key, Level level) {
+        this.namespace = namespace;
+        this.key = key;
+        this.level = level;
+    }
+
+    public Namespace getNamespace() {
+        return namespace;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    @Override
+    public String toString() {
+        return level + "/" + namespace + "/" + key;
+    }
+}
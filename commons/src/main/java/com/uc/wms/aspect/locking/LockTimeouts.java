@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.aspect.locking;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.uc.wms.annotation.Level;
+import org.springframework.core.env.PropertyResolver;
+
+/**
+ * Wait timeouts of {@code @Lock}s that do not set {@code timeoutInSeconds}, in seconds, -1 for none. Resolved from
+ * the first of {@code zookeeper.lock.timeoutSeconds.<LEVEL>.<NAMESPACE>}, {@code zookeeper.lock.timeoutSeconds.<NAMESPACE>}
+ * and {@code zookeeper.lock.timeoutSeconds} that is set, else {@value #DEFAULT_TIMEOUT_SECONDS}.
+ */
+public class LockTimeouts {
+
+    public static final String                     PROPERTY_PREFIX         = "zookeeper.lock.timeoutSeconds";
+
+    public static final long                       DEFAULT_TIMEOUT_SECONDS = 60;
+
+    private final Map<Level, Map<Namespace, Long>> timeouts                = new EnumMap<>(Level.class);
+
+    public LockTimeouts(PropertyResolver properties) {
+        long defaultTimeout = properties.getProperty(PROPERTY_PREFIX, Long.class, DEFAULT_TIMEOUT_SECONDS);
+        for (Level level : Level.values()) {
+            Map<Namespace, Long> levelTimeouts = new EnumMap<>(Namespace.class);
+            for (Namespace namespace : Namespace.values()) {
+                Long timeout = properties.getProperty(PROPERTY_PREFIX + '.' + level.name() + '.' + namespace.name(), Long.class);
+                if (timeout == null) {
+                    timeout = properties.getProperty(PROPERTY_PREFIX + '.' + namespace.name(), Long.class, defaultTimeout);
+                }
+                levelTimeouts.put(namespace, timeout);
+            }
+            timeouts.put(level, levelTimeouts);
+        }
+    }
+
+    public long getTimeoutInSeconds(Namespace namespace, Level level) {
+        return timeouts.get(level).get(namespace);
+    }
+}
@@ -8,53 +8,208 @@
 package com.uc.wms.expressions;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 /**
+ * Compiled SpEL template expression. Instances are immutable and safe to share across threads, so
+ * {@link #compile(String)} hands out cached instances keyed by the expression text.
+ * <p>
+ * The cache size and the SpEL compiler mode can be tuned with the {@value #CACHE_SIZE_PROPERTY} and
+ * {@value #COMPILER_MODE_PROPERTY} system properties. Templates of the form {@code #{#args[n]}} are resolved
+ * directly from the {@code args} array without going through SpEL. SpEL evaluation contexts are reused per thread,
+ * and {@code evaluateAll} evaluates one expression over many context maps, e.g. a rule over a bulk import.
+ *
  * @author singla
  */
 public class Expression implements Serializable {
+
+    public static final String                             CACHE_SIZE_PROPERTY    = "wms.expression.cacheSize";
+
+    public static final String                             COMPILER_MODE_PROPERTY = "wms.expression.compilerMode";
+
+    private static final int                               CACHE_MAX_SIZE         = Integer.getInteger(CACHE_SIZE_PROPERTY, 1024);
+
+    private static final String                            ARGS_VARIABLE          = "args";
+
+    private static final String                            ARGS_PREFIX            = "#{#args[";
+
+    private static final String                            ARGS_SUFFIX            = "]}";
+
+    private static final ExpressionParser                  PARSER                 = new SpelExpressionParser(
+            new SpelParserConfiguration(getCompilerMode(), Expression.class.getClassLoader()));
+
+    private static final ConcurrentMap<String, Expression> CACHE                  = new ConcurrentHashMap<>();
+
     private transient org.springframework.expression.Expression expression;
     private String                                    expressionText;
+    private int                                       argumentIndex = -1;
 
     public Expression(){}
 
     private Expression(String expressionText, org.springframework.expression.Expression expression) {
         this.expressionText = expressionText;
         this.expression = expression;
-
+        this.argumentIndex = parseArgumentIndex(expressionText);
     }
 
     public static Expression compile(String expressionText) {
-        ExpressionParser parser = new SpelExpressionParser();
-        return new Expression(expressionText, parser.parseExpression(expressionText, ParserContext.TEMPLATE_EXPRESSION));
+        Expression compiled = CACHE.get(expressionText);
+        if (compiled == null) {
+            compiled = new Expression(expressionText, PARSER.parseExpression(expressionText, ParserContext.TEMPLATE_EXPRESSION));
+            if (CACHE.size() >= CACHE_MAX_SIZE) {
+                // bounded rather than LRU, expressions come from annotations and rules so the working set is small
+                Iterator<String> it = CACHE.keySet().iterator();
+                if (it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+            Expression existing = CACHE.putIfAbsent(expressionText, compiled);
+            if (existing != null) {
+                compiled = existing;
+            }
+        }
+        return compiled;
     }
 
     public <T> T evaluate(Map<String, Object> contextParams, Class<T> retType) {
-        return expression.getValue(getContext(contextParams), retType);
+        if (argumentIndex >= 0) {
+            Object[] args = getArguments(contextParams);
+            if (args != null && argumentIndex < args.length && (args[argumentIndex] == null || retType.isInstance(args[argumentIndex]))) {
+                return retType.cast(args[argumentIndex]);
+            }
+        }
+        ReusableEvaluationContext context = ReusableEvaluationContext.acquire();
+        try {
+            return expression.getValue(context.bind(contextParams), retType);
+        } finally {
+            context.release();
+        }
+    }
+
+    public Object evaluate(Map<String, Object> contextParams) {
+        if (argumentIndex >= 0) {
+            Object[] args = getArguments(contextParams);
+            if (args != null && argumentIndex < args.length) {
+                return args[argumentIndex];
+            }
+        }
+        ReusableEvaluationContext context = ReusableEvaluationContext.acquire();
+        try {
+            return expression.getValue(context.bind(contextParams));
+        } finally {
+            context.release();
+        }
+    }
+
+    /**
+     * Evaluates the expression over every context map of the stream, lazily as the returned stream is consumed and in
+     * parallel if the stream is parallel. Each thread reuses one evaluation context for all its elements.
+     *
+     * @param contexts
+     * @param retType
+     * @return results in the order of the contexts
+     */
+    public <T> Stream<T> evaluateAll(Stream<? extends Map<String, Object>> contexts, Class<T> retType) {
+        return contexts.map(contextParams -> evaluate(contextParams, retType));
+    }
+
+    /**
+     * @param contexts
+     * @param retType
+     * @param parallel evaluate on the common fork-join pool once the returned stream is consumed
+     * @return results in the order of the contexts
+     */
+    public <T> Stream<T> evaluateAll(Collection<? extends Map<String, Object>> contexts, Class<T> retType, boolean parallel) {
+        return evaluateAll(parallel ? contexts.parallelStream() : contexts.stream(), retType);
+    }
+
+    /**
+     * Evaluates the expression over every context map on the given fork-join pool, e.g. to keep a bulk import off the
+     * common pool.
+     *
+     * @param contexts
+     * @param retType
+     * @param pool
+     * @return results in the order of the contexts
+     */
+    public <T> List<T> evaluateAll(Collection<? extends Map<String, Object>> contexts, Class<T> retType, ForkJoinPool pool) {
+        return pool.submit(() -> evaluateAll(contexts.parallelStream(), retType).collect(Collectors.toList())).join();
     }
 
     /**
-     * @param contextParams
+     * Evaluates the expression with {@code args} as the only context variable, skipping the context map entirely
+     * for {@code #{#args[n]}} templates.
+     *
+     * @param args
      * @return
      */
-    private EvaluationContext getContext(Map<String, Object> contextParams) {
-        EvaluationContext context = new StandardEvaluationContext();
-        for (Map.Entry<String, Object> eContextParam : contextParams.entrySet()) {
-            context.setVariable(eContextParam.getKey(), eContextParam.getValue());
+    public Object evaluateArguments(Object[] args) {
+        if (argumentIndex >= 0 && args != null && argumentIndex < args.length) {
+            return args[argumentIndex];
         }
-        return context;
+        return evaluate(Collections.<String, Object> singletonMap(ARGS_VARIABLE, args));
     }
 
-    public Object evaluate(Map<String, Object> contextParams) {
-        return expression.getValue(getContext(contextParams));
+    /* the parsed SpEL expression, for analysis such as RuleSet's */
+    org.springframework.expression.Expression getSpelExpression() {
+        return expression;
+    }
+
+    /**
+     * @return true if this is a plain {@code #{#args[n]}} template which is evaluated without SpEL
+     */
+    public boolean isArgumentReference() {
+        return argumentIndex >= 0;
+    }
+
+    private static Object[] getArguments(Map<String, Object> contextParams) {
+        Object args = contextParams.get(ARGS_VARIABLE);
+        return args instanceof Object[] ? (Object[]) args : null;
+    }
+
+    private static int parseArgumentIndex(String expressionText) {
+        if (!expressionText.startsWith(ARGS_PREFIX) || !expressionText.endsWith(ARGS_SUFFIX)) {
+            return -1;
+        }
+        int end = expressionText.length() - ARGS_SUFFIX.length();
+        if (end <= ARGS_PREFIX.length() || end - ARGS_PREFIX.length() > 4) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = ARGS_PREFIX.length(); i < end; i++) {
+            char c = expressionText.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    private static SpelCompilerMode getCompilerMode() {
+        String mode = System.getProperty(COMPILER_MODE_PROPERTY);
+        return mode == null ? SpelCompilerMode.OFF : SpelCompilerMode.valueOf(mode.trim().toUpperCase());
+    }
+
+    private Object readResolve() {
+        return expressionText == null ? this : compile(expressionText);
     }
 
     /**
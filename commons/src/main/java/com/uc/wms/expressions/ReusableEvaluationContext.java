@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.expressions;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * One {@link StandardEvaluationContext} per thread, rebound to the variables of each evaluation, so that evaluations
+ * neither allocate a context nor lose the property and method resolution caches of its accessors. An evaluation
+ * nested in another one on the same thread, e.g. through a SpEL function, gets a context of its own.
+ * <p>
+ * Every variable set on the context is tracked, the bound ones as well as those an expression assigns, e.g.
+ * {@code #x = 1}, and all of them are cleared on release. Registered functions are kept.
+ */
+final class ReusableEvaluationContext {
+
+    private static final ThreadLocal<ReusableEvaluationContext> CURRENT   = ThreadLocal.withInitial(ReusableEvaluationContext::new);
+
+    /* names of the variables set since the last release */
+    private final Set<String>                                   variables = new HashSet<>();
+
+    private final StandardEvaluationContext                     context   = new StandardEvaluationContext() {
+                                                                              @Override
+                                                                              public void setVariable(String name, Object value) {
+                                                                                  super.setVariable(name, value);
+                                                                                  if (value != null) {
+                                                                                      variables.add(name);
+                                                                                  }
+                                                                              }
+                                                                          };
+
+    private boolean                                             inUse;
+
+    private ReusableEvaluationContext() {
+    }
+
+    static ReusableEvaluationContext acquire() {
+        ReusableEvaluationContext current = CURRENT.get();
+        if (current.inUse) {
+            return new ReusableEvaluationContext();
+        }
+        current.inUse = true;
+        return current;
+    }
+
+    EvaluationContext bind(Map<String, Object> contextParams) {
+        for (Map.Entry<String, Object> eContextParam : contextParams.entrySet()) {
+            context.setVariable(eContextParam.getKey(), eContextParam.getValue());
+        }
+        return context;
+    }
+
+    /* unsets every variable, the context must not keep the last batch element or any value derived from it reachable */
+    void release() {
+        // setting null removes the variable without tracking it
+        for (String variable : variables) {
+            context.setVariable(variable, null);
+        }
+        variables.clear();
+        inUse = false;
+    }
+}
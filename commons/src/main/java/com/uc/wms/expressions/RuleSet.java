@@ -0,0 +1,439 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.expressions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.spel.ExpressionState;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpGE;
+import org.springframework.expression.spel.ast.OpGT;
+import org.springframework.expression.spel.ast.OpLE;
+import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.support.StandardTypeComparator;
+
+/**
+ * Named boolean {@link Expression} rules evaluated together against one context, e.g. order routing rules.
+ * <p>
+ * Every rule is split into the conjuncts of its top level {@code and}. Identical conjuncts, and identical operands of
+ * the indexed ones, are evaluated at most once per context however many rules share them. A conjunct comparing an
+ * operand with a literal through {@code ==}, {@code >}, {@code >=}, {@code <} or {@code <=} is indexed by operand:
+ * the operand is evaluated once and a hash lookup, respectively a scan of the thresholds it passes, yields the rules
+ * whose such conjunct holds. Only rules all of whose indexed conjuncts hold are candidates, and only their remaining
+ * conjuncts are evaluated, in rule order. Matching hence costs the distinct operands plus the candidates rather than
+ * every rule.
+ * <p>
+ * A rule whose indexed operand fails to evaluate, e.g. a method call on a null variable, or one of whose remaining
+ * conjuncts is not a Boolean, e.g. a String or null that SpEL converts or rejects, is evaluated as a whole instead, so
+ * it fails or not exactly as {@link Expression#evaluate(Map, Class)} would. Instances are immutable and thread safe.
+ */
+public class RuleSet {
+
+    private static final TypeComparator COMPARATOR = new StandardTypeComparator();
+
+    private static final Object         NULL_KEY   = new Object();
+
+    private final String[]              names;
+
+    private final Expression[]          expressions;
+
+    /* distinct conjuncts and operands, by their AST text */
+    private final SpelNode[]            slots;
+
+    /* per rule, slots of the conjuncts left once its indexed ones hold */
+    private final int[][]               residuals;
+
+    /* per rule, number of its indexed conjuncts */
+    private final int[]                 indexedCounts;
+
+    private final OperandIndex[]        operandIndexes;
+
+    /* rules without indexed conjuncts, candidates for every context */
+    private final BitSet                unindexed  = new BitSet();
+
+    /**
+     * @param rules rule templates by name, in the order matches are reported in
+     */
+    public RuleSet(Map<String, String> rules) {
+        int size = rules.size();
+        this.names = new String[size];
+        this.expressions = new Expression[size];
+        this.residuals = new int[size][];
+        this.indexedCounts = new int[size];
+        Map<String, Integer> slotIds = new LinkedHashMap<>();
+        List<SpelNode> slotNodes = new ArrayList<>();
+        Map<Integer, OperandIndex.Builder> builders = new LinkedHashMap<>();
+        int rule = 0;
+        for (Map.Entry<String, String> entry : rules.entrySet()) {
+            names[rule] = entry.getKey();
+            expressions[rule] = Expression.compile(entry.getValue());
+            List<Integer> residual = new ArrayList<>();
+            for (SpelNode conjunct : getConjuncts(expressions[rule])) {
+                Predicate predicate = Predicate.of(conjunct);
+                if (predicate == null) {
+                    residual.add(getSlot(conjunct, slotIds, slotNodes));
+                } else {
+                    int slot = getSlot(predicate.operand, slotIds, slotNodes);
+                    builders.computeIfAbsent(slot, OperandIndex.Builder::new).add(rule, predicate);
+                    indexedCounts[rule]++;
+                }
+            }
+            residuals[rule] = residual.stream().mapToInt(Integer::intValue).toArray();
+            if (indexedCounts[rule] == 0) {
+                unindexed.set(rule);
+            }
+            rule++;
+        }
+        this.slots = slotNodes.toArray(new SpelNode[0]);
+        this.operandIndexes = new OperandIndex[builders.size()];
+        int i = 0;
+        for (OperandIndex.Builder builder : builders.values()) {
+            operandIndexes[i++] = builder.build();
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param contextParams
+     * @return names of the rules evaluating to true, in rule order
+     */
+    public List<String> getMatchingRules(Map<String, Object> contextParams) {
+        BitSet matches = match(contextParams);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> matching = new ArrayList<>(matches.cardinality());
+        for (int rule = matches.nextSetBit(0); rule >= 0; rule = matches.nextSetBit(rule + 1)) {
+            matching.add(names[rule]);
+        }
+        return matching;
+    }
+
+    /**
+     * @param contextParams
+     * @return positions of the rules evaluating to true
+     */
+    public BitSet match(Map<String, Object> contextParams) {
+        ReusableEvaluationContext context = ReusableEvaluationContext.acquire();
+        try {
+            Evaluation evaluation = new Evaluation(new ExpressionState(context.bind(contextParams)));
+            for (OperandIndex operandIndex : operandIndexes) {
+                operandIndex.probe(evaluation);
+            }
+            BitSet matches = new BitSet(names.length);
+            evaluation.candidates.or(unindexed);
+            for (int rule = evaluation.candidates.nextSetBit(0); rule >= 0; rule = evaluation.candidates.nextSetBit(rule + 1)) {
+                Boolean matched = evaluation.matchesResiduals(rule);
+                if (matched == null) {
+                    evaluation.fallbacks.set(rule);
+                } else if (matched) {
+                    matches.set(rule);
+                }
+            }
+            for (int rule = evaluation.fallbacks.nextSetBit(0); rule >= 0; rule = evaluation.fallbacks.nextSetBit(rule + 1)) {
+                if (Boolean.TRUE.equals(expressions[rule].evaluate(contextParams, Boolean.class))) {
+                    matches.set(rule);
+                }
+            }
+            return matches;
+        } finally {
+            context.release();
+        }
+    }
+
+    private static List<SpelNode> getConjuncts(Expression expression) {
+        List<SpelNode> conjuncts = new ArrayList<>();
+        org.springframework.expression.Expression spelExpression = expression.getSpelExpression();
+        if (!(spelExpression instanceof SpelExpression)) {
+            throw new IllegalArgumentException("Not a single #{...} template: " + expression);
+        }
+        addConjuncts(((SpelExpression) spelExpression).getAST(), conjuncts);
+        return conjuncts;
+    }
+
+    private static void addConjuncts(SpelNode node, List<SpelNode> conjuncts) {
+        if (node instanceof OpAnd) {
+            for (int i = 0; i < node.getChildCount(); i++) {
+                addConjuncts(node.getChild(i), conjuncts);
+            }
+        } else {
+            conjuncts.add(node);
+        }
+    }
+
+    private static int getSlot(SpelNode node, Map<String, Integer> slotIds, List<SpelNode> slotNodes) {
+        return slotIds.computeIfAbsent(node.toStringAST(), ast -> {
+            slotNodes.add(node);
+            return slotNodes.size() - 1;
+        });
+    }
+
+    private static boolean isContextDependent(SpelNode node) {
+        if (node instanceof VariableReference) {
+            return true;
+        }
+        for (int i = 0; i < node.getChildCount(); i++) {
+            if (isContextDependent(node.getChild(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* as SpEL equality: numbers compare by value, 5 == 5L == 5.0, and char sequences by their text */
+    private static Object toKey(Object value) {
+        if (value == null) {
+            return NULL_KEY;
+        }
+        if (value instanceof CharSequence) {
+            return value.toString();
+        }
+        if (value instanceof Number && !(value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite()))) {
+            try {
+                BigDecimal decimal = new BigDecimal(value.toString()).stripTrailingZeros();
+                return decimal.signum() == 0 ? BigDecimal.ZERO : decimal;
+            } catch (NumberFormatException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * State of one {@link #match(Map)}.
+     */
+    private final class Evaluation {
+        private final ExpressionState state;
+        private final Object[]        values     = new Object[slots.length];
+        private final boolean[]       evaluated  = new boolean[slots.length];
+        private final int[]           satisfied  = new int[names.length];
+        private final BitSet          candidates = new BitSet(names.length);
+        private final BitSet          fallbacks  = new BitSet();
+
+        Evaluation(ExpressionState state) {
+            this.state = state;
+        }
+
+        Object getValue(int slot) {
+            if (!evaluated[slot]) {
+                values[slot] = slots[slot].getValue(state);
+                evaluated[slot] = true;
+            }
+            return values[slot];
+        }
+
+        void onSatisfied(int rule) {
+            if (++satisfied[rule] == indexedCounts[rule] && !fallbacks.get(rule)) {
+                candidates.set(rule);
+            }
+        }
+
+        void onFailed(int[] rules) {
+            for (int rule : rules) {
+                fallbacks.set(rule);
+                candidates.clear(rule);
+            }
+        }
+
+        /* null if a conjunct is not a Boolean, only SpEL knows how such a rule ends */
+        Boolean matchesResiduals(int rule) {
+            for (int slot : residuals[rule]) {
+                Object value = getValue(slot);
+                if (!(value instanceof Boolean)) {
+                    return null;
+                }
+                if (!(Boolean) value) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An indexable conjunct: operand, comparison and literal, with the literal on the right.
+     */
+    private static final class Predicate {
+        private final SpelNode operand;
+        private final Kind     kind;
+        private final Object   literal;
+
+        private enum Kind {
+            EQ,
+            GT,
+            GE,
+            LT,
+            LE
+        }
+
+        private Predicate(SpelNode operand, Kind kind, Object literal) {
+            this.operand = operand;
+            this.kind = kind;
+            this.literal = literal;
+        }
+
+        static Predicate of(SpelNode node) {
+            Kind kind;
+            Kind flipped;
+            if (node instanceof OpEQ) {
+                kind = flipped = Kind.EQ;
+            } else if (node instanceof OpGT) {
+                kind = Kind.GT;
+                flipped = Kind.LT;
+            } else if (node instanceof OpGE) {
+                kind = Kind.GE;
+                flipped = Kind.LE;
+            } else if (node instanceof OpLT) {
+                kind = Kind.LT;
+                flipped = Kind.GT;
+            } else if (node instanceof OpLE) {
+                kind = Kind.LE;
+                flipped = Kind.GE;
+            } else {
+                return null;
+            }
+            SpelNode left = node.getChild(0);
+            SpelNode right = node.getChild(1);
+            if (right instanceof Literal && isContextDependent(left)) {
+                return new Predicate(left, kind, ((Literal) right).getLiteralValue().getValue());
+            }
+            if (left instanceof Literal && isContextDependent(right)) {
+                return new Predicate(right, flipped, ((Literal) left).getLiteralValue().getValue());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rules by the value of one operand: a hash of equality literals, lower bounds ascending and upper bounds
+     * descending, so that a probe only visits the bounds the value passes.
+     */
+    private static final class OperandIndex {
+        private final int                slot;
+        private final int[]              rules;
+        private final Map<Object, int[]> equalities;
+        private final Bound[]            lowerBounds;
+        private final Bound[]            upperBounds;
+
+        private OperandIndex(int slot, int[] rules, Map<Object, int[]> equalities, Bound[] lowerBounds, Bound[] upperBounds) {
+            this.slot = slot;
+            this.rules = rules;
+            this.equalities = equalities;
+            this.lowerBounds = lowerBounds;
+            this.upperBounds = upperBounds;
+        }
+
+        void probe(Evaluation evaluation) {
+            Object value;
+            try {
+                value = evaluation.getValue(slot);
+                if (!equalities.isEmpty()) {
+                    int[] matched = equalities.get(toKey(value));
+                    if (matched != null) {
+                        for (int rule : matched) {
+                            evaluation.onSatisfied(rule);
+                        }
+                    }
+                }
+                // value > bound, ascending
+                for (Bound bound : lowerBounds) {
+                    int comparison = COMPARATOR.compare(value, bound.literal);
+                    if (comparison < 0) {
+                        break;
+                    }
+                    if (comparison > 0 || bound.inclusive) {
+                        evaluation.onSatisfied(bound.rule);
+                    }
+                }
+                // value < bound, descending
+                for (Bound bound : upperBounds) {
+                    int comparison = COMPARATOR.compare(value, bound.literal);
+                    if (comparison > 0) {
+                        break;
+                    }
+                    if (comparison < 0 || bound.inclusive) {
+                        evaluation.onSatisfied(bound.rule);
+                    }
+                }
+            } catch (EvaluationException e) {
+                // rules on this operand are evaluated as a whole, failing as they would on their own
+                evaluation.onFailed(rules);
+            }
+        }
+
+        private static final class Bound {
+            private final int     rule;
+            private final Object  literal;
+            private final boolean inclusive;
+
+            Bound(int rule, Object literal, boolean inclusive) {
+                this.rule = rule;
+                this.literal = literal;
+                this.inclusive = inclusive;
+            }
+        }
+
+        private static final class Builder {
+            private final int                        slot;
+            private final List<Integer>              rules      = new ArrayList<>();
+            private final Map<Object, List<Integer>> equalities = new HashMap<>();
+            private final List<Bound>                lower      = new ArrayList<>();
+            private final List<Bound>                upper      = new ArrayList<>();
+
+            Builder(int slot) {
+                this.slot = slot;
+            }
+
+            void add(int rule, Predicate predicate) {
+                if (rules.isEmpty() || rules.get(rules.size() - 1) != rule) {
+                    rules.add(rule);
+                }
+                switch (predicate.kind) {
+                    case EQ:
+                        equalities.computeIfAbsent(toKey(predicate.literal), key -> new ArrayList<>()).add(rule);
+                        break;
+                    case GT:
+                    case GE:
+                        lower.add(new Bound(rule, predicate.literal, predicate.kind == Predicate.Kind.GE));
+                        break;
+                    default:
+                        upper.add(new Bound(rule, predicate.literal, predicate.kind == Predicate.Kind.LE));
+                }
+            }
+
+            OperandIndex build() {
+                Map<Object, int[]> equalityIndex = new HashMap<>();
+                for (Map.Entry<Object, List<Integer>> entry : equalities.entrySet()) {
+                    equalityIndex.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+                }
+                // literals of one operand share a comparable type, else SpEL could not compare them either
+                lower.sort((a, b) -> COMPARATOR.compare(a.literal, b.literal));
+                upper.sort((a, b) -> COMPARATOR.compare(b.literal, a.literal));
+                return new OperandIndex(slot, rules.stream().mapToInt(Integer::intValue).toArray(), equalityIndex, lower.toArray(new Bound[0]),
+                        upper.toArray(new Bound[0]));
+            }
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.ILockingService;
+import com.uc.wms.aspect.locking.LockRequest;
+import com.uc.wms.aspect.locking.Namespace;
+
+/**
+ * Zookeeper backed {@link ILockingService} laid out as per {@link LockPaths}, over one or more ensembles as per
+ * {@link ShardedLockingClient}. Applications only have to tell which tenant/facility the current request is scoped to.
+ */
+public abstract class AbstractLockingService implements ILockingService {
+
+    public static final int                               DEFAULT_HIERARCHY_STRIPES = 16;
+
+    /* the primary ensemble */
+    protected final LockingClient                         lockingClient;
+
+    protected final ShardedLockingClient                  lockingClients;
+
+    private volatile Set<Namespace>                       sharedReadNamespaces      = EnumSet.noneOf(Namespace.class);
+
+    private volatile Map<Namespace, OptimisticLockPolicy> optimisticPolicies        = new EnumMap<>(Namespace.class);
+
+    private volatile Map<Namespace, LockEscalation>       escalations               = new EnumMap<>(Namespace.class);
+
+    private volatile Map<Namespace, Integer>              permits                   = new EnumMap<>(Namespace.class);
+
+    private volatile int                                  hierarchyStripes          = DEFAULT_HIERARCHY_STRIPES;
+
+    protected AbstractLockingService(LockingClient lockingClient) {
+        this(new ShardedLockingClient(lockingClient));
+    }
+
+    protected AbstractLockingService(ShardedLockingClient lockingClients) {
+        this.lockingClient = lockingClients.getPrimary();
+        this.lockingClients = lockingClients;
+    }
+
+    /**
+     * Scope of a lock below its namespace root for the current request: empty for GLOBAL, the tenant code for TENANT
+     * and tenant and facility codes, separated by {@link LockPaths#SEPARATOR}, for FACILITY.
+     *
+     * @param level
+     * @return
+     */
+    protected abstract String getScope(Level level);
+
+    /**
+     * Data written on the lock nodes, shows up when a lock can not be acquired. Null by default.
+     *
+     * @return
+     */
+    protected String getLockData() {
+        return null;
+    }
+
+    /**
+     * Whether read locks of the namespace share one zookeeper read node among the readers of this JVM, see
+     * {@link SharedReadWriteLock}. Meant for read heavy namespaces, local writers then go ahead of new local readers.
+     *
+     * @param namespace
+     * @return
+     */
+    protected boolean isReadLeaseShared(Namespace namespace) {
+        return sharedReadNamespaces.contains(namespace);
+    }
+
+    public void setSharedReadNamespaces(Collection<Namespace> namespaces) {
+        this.sharedReadNamespaces = namespaces.isEmpty() ? EnumSet.noneOf(Namespace.class) : EnumSet.copyOf(namespaces);
+    }
+
+    @Override
+    public OptimisticLockPolicy getOptimisticLockPolicy(Namespace namespace) {
+        return optimisticPolicies.get(namespace);
+    }
+
+    /**
+     * Runs {@code @Locks} methods on the namespaces optimistically with the default {@link OptimisticLockPolicy}. Only
+     * for namespaces whose locked methods write the guarded document version-checked and can be run again on conflict.
+     *
+     * @param namespaces
+     */
+    public void setOptimisticNamespaces(Collection<Namespace> namespaces) {
+        Map<Namespace, OptimisticLockPolicy> policies = new EnumMap<>(Namespace.class);
+        for (Namespace namespace : namespaces) {
+            policies.put(namespace, new OptimisticLockPolicy(namespace.name()));
+        }
+        setOptimisticLockPolicies(policies);
+    }
+
+    public void setOptimisticLockPolicies(Map<Namespace, OptimisticLockPolicy> policies) {
+        this.optimisticPolicies = policies.isEmpty() ? new EnumMap<>(Namespace.class) : new EnumMap<>(policies);
+    }
+
+    @Override
+    public LockEscalation getLockEscalation(Namespace namespace) {
+        return escalations.get(namespace);
+    }
+
+    /**
+     * Namespaces whose bulk locks escalate to bucket locks, see {@link LockEscalation}. Every node locking the
+     * namespaces needs the same escalations.
+     *
+     * @param escalations
+     */
+    public void setLockEscalations(Map<Namespace, LockEscalation> escalations) {
+        this.escalations = escalations.isEmpty() ? new EnumMap<>(Namespace.class) : new EnumMap<>(escalations);
+    }
+
+    /**
+     * Holders allowed at once on a key of each namespace, e.g. the parallel calls a channel's API allows; namespaces
+     * not listed stay mutexes. Every node must be configured with the same permits, see {@link DistributedSemaphore}.
+     *
+     * @param permits
+     */
+    public void setNamespacePermits(Map<Namespace, Integer> permits) {
+        for (Map.Entry<Namespace, Integer> entry : permits.entrySet()) {
+            if (entry.getValue() < 1) {
+                throw new IllegalArgumentException("permits should be at least 1, found: " + entry.getValue() + " for namespace: " + entry.getKey());
+            }
+        }
+        this.permits = permits.isEmpty() ? new EnumMap<>(Namespace.class) : new EnumMap<>(permits);
+    }
+
+    /**
+     * Stripes the global granule of every namespace's hierarchy is spread over, see {@link #getHierarchicalLock}. Every
+     * node must use the same count, changing it needs all nodes restarted together.
+     *
+     * @param hierarchyStripes
+     */
+    public void setHierarchyStripes(int hierarchyStripes) {
+        if (hierarchyStripes < 1) {
+            throw new IllegalArgumentException("hierarchyStripes should be at least 1, found: " + hierarchyStripes);
+        }
+        this.hierarchyStripes = hierarchyStripes;
+    }
+
+    @Override
+    public int getPermits(Namespace namespace) {
+        Integer namespacePermits = permits.get(namespace);
+        return namespacePermits == null ? 1 : namespacePermits;
+    }
+
+    /**
+     * Where lock keys are sanitized, as per {@link LockPaths#sanitizeKey}: every lock of the service gets its path from
+     * here, save hierarchical ones which live in a tree of their own, so callers pass keys as they are.
+     *
+     * @param namespace
+     * @param key
+     * @param level
+     * @return
+     */
+    public String getLockPath(Namespace namespace, String key, Level level) {
+        return LockPaths.getLockPath(level, namespace, getScope(level), LockPaths.sanitizeKey(key));
+    }
+
+    @Override
+    public ReadWriteLock getReadWriteLock(Namespace namespace, String key) {
+        return getReadWriteLock(namespace, key, Level.TENANT);
+    }
+
+    @Override
+    public ReadWriteLock getReadWriteLock(Namespace namespace, String key, Level level) {
+        return getReadWriteLock(getLockPath(namespace, key, level), isReadLeaseShared(namespace));
+    }
+
+    private ReadWriteLock getReadWriteLock(String path, boolean shared) {
+        List<LockingClient> clients = lockingClients.getClients(path);
+        if (clients.size() == 1) {
+            return newReadWriteLock(clients.get(0), path, shared);
+        }
+        List<ReadWriteLock> readWriteLocks = new ArrayList<>(clients.size());
+        for (LockingClient client : clients) {
+            readWriteLocks.add(newReadWriteLock(client, path, shared));
+        }
+        return CompositeLock.readWriteLock(readWriteLocks);
+    }
+
+    private ReadWriteLock newReadWriteLock(LockingClient client, String path, boolean shared) {
+        return shared ? new SharedReadWriteLock(client, path, getLockData()) : new DistributedReadWriteLock(client, path, getLockData());
+    }
+
+    @Override
+    public Lock getLock(Namespace namespace, String key) {
+        return getLock(namespace, key, Level.TENANT);
+    }
+
+    @Override
+    public Lock getLock(Namespace namespace, String key, Level level) {
+        return getLock(namespace, key, level, "");
+    }
+
+    /**
+     * Reentrant per thread, see {@link ReentrantLockRegistry}: a thread already holding the path, e.g. from an outer
+     * {@code @Locks} method, only counts another hold.
+     */
+    @Override
+    public Lock getLock(Namespace namespace, String key, Level level, String lockSection) {
+        String path = getLockPath(namespace, key, level);
+        return lockingClients.getReentrantLockRegistry().getLock(path, p -> newLock(namespace, p, lockSection));
+    }
+
+    private Lock newLock(Namespace namespace, String path, String lockSection) {
+        List<LockingClient> clients = lockingClients.getClients(path);
+        Lock lock;
+        if (clients.size() == 1) {
+            lock = newLock(clients.get(0), path, lockSection);
+        } else {
+            List<Lock> locks = new ArrayList<>(clients.size());
+            for (LockingClient client : clients) {
+                locks.add(newLock(client, path, lockSection));
+            }
+            lock = new CompositeLock(locks);
+        }
+        LockEscalation escalation = escalations.get(namespace);
+        if (escalation == null) {
+            return lock;
+        }
+        String bucketPath = escalation.getBucketPath(path);
+        return new CompositeLock(Arrays.asList(getReadWriteLock(bucketPath, true).readLock(), lock));
+    }
+
+    /* coalesced on ensembles with lock coalescing enabled, see LockingClient#setLockCoalescing */
+    private Lock newLock(LockingClient client, String path, String lockSection) {
+        CoalescingLockManager coalescing = client.getCoalescingLockManager();
+        return coalescing == null ? new DistributedLock(client, path, lockSection, getLockData()) : coalescing.getLock(path, lockSection, getLockData());
+    }
+
+    /**
+     * Reentrant per thread like {@link #getLock}: the paths the acquiring thread already holds only count another hold,
+     * the others are multi locked.
+     */
+    @Override
+    public Lock getMultiLock(List<LockRequest> requests, String lockSection) {
+        Map<String, String> bucketPaths = new HashMap<>();
+        List<String> paths = new ArrayList<>(requests.size());
+        for (LockRequest request : requests) {
+            String path = getLockPath(request.getNamespace(), request.getKey(), request.getLevel());
+            paths.add(path);
+            LockEscalation escalation = escalations.get(request.getNamespace());
+            if (escalation != null) {
+                bucketPaths.put(path, escalation.getBucketPath(path));
+            }
+        }
+        return lockingClients.getReentrantLockRegistry().getLock(paths, free -> newMultiLock(free, bucketPaths, lockSection));
+    }
+
+    private Lock newMultiLock(List<String> paths, Map<String, String> bucketPathsByPath, String lockSection) {
+        Set<String> bucketPaths = new TreeSet<>();
+        for (String path : paths) {
+            String bucketPath = bucketPathsByPath.get(path);
+            if (bucketPath != null) {
+                bucketPaths.add(bucketPath);
+            }
+        }
+        Map<LockingClient, List<String>> pathsByClient = lockingClients.groupByClient(paths);
+        // buckets first, then ensembles in a fixed order, paths in a fixed order within each
+        List<Lock> locks = new ArrayList<>(bucketPaths.size() + pathsByClient.size());
+        for (String bucketPath : bucketPaths) {
+            locks.add(getReadWriteLock(bucketPath, true).readLock());
+        }
+        for (Map.Entry<LockingClient, List<String>> entry : pathsByClient.entrySet()) {
+            locks.add(new DistributedMultiLock(entry.getKey(), entry.getValue(), lockSection, getLockData()));
+        }
+        return locks.size() == 1 ? locks.get(0) : new CompositeLock(locks);
+    }
+
+    /**
+     * Up to the escalation threshold of the namespace, a {@link #getMultiLock} over the keys. Above it, the buckets
+     * of the keys taken exclusively, which costs a round trip per bucket rather than per key and excludes every key
+     * lock of those buckets, see {@link LockEscalation}.
+     */
+    @Override
+    public Lock getBulkLock(Namespace namespace, Level level, Collection<String> keys, String lockSection) {
+        LockEscalation escalation = escalations.get(namespace);
+        if (escalation == null || !escalation.isEscalated(keys.size())) {
+            return ILockingService.super.getBulkLock(namespace, level, keys, lockSection);
+        }
+        Set<String> bucketPaths = new TreeSet<>();
+        for (String key : keys) {
+            bucketPaths.add(escalation.getBucketPath(getLockPath(namespace, key, level)));
+        }
+        List<Lock> locks = new ArrayList<>(bucketPaths.size());
+        for (String bucketPath : bucketPaths) {
+            locks.add(getReadWriteLock(bucketPath, true).writeLock());
+        }
+        return new CompositeLock(locks);
+    }
+
+    @Override
+    public Lock getSemaphore(Namespace namespace, String key, Level level, int permits, String lockSection) {
+        if (permits == 1) {
+            return getLock(namespace, key, level, lockSection);
+        }
+        String path = LockPaths.prefixKey(getLockPath(namespace, key, level), LockPaths.SEMAPHORE);
+        List<LockingClient> clients = lockingClients.getClients(path);
+        if (clients.size() == 1) {
+            return new DistributedSemaphore(clients.get(0), path, permits, lockSection, getLockData());
+        }
+        // while draining, a lease on every ensemble still bounds the holders by the permits
+        List<Lock> locks = new ArrayList<>(clients.size());
+        for (LockingClient client : clients) {
+            locks.add(new DistributedSemaphore(client, path, permits, lockSection, getLockData()));
+        }
+        return new CompositeLock(locks);
+    }
+
+    /**
+     * Multi-granularity lock: {@code mode} on the key, below the granule of the current request's scope at
+     * {@code level}, and the intention of {@code mode} on that granule and every granule above it. Or, with a null
+     * key, {@code mode} on the granule itself, e.g. {@code X} on the tenant granule excludes every hierarchical lock of
+     * the tenant, whatever its facility, while {@code X} on facility keys of one tenant run concurrently. Granules are
+     * locked top down and released bottom up, see {@link LockMode}.
+     * <p>
+     * Every hierarchical lock of a namespace passes through its global granule, so intentions there, which never
+     * conflict with each other, take only one of its stripes, picked by tenant, or by key for GLOBAL keys. {@code S}
+     * and {@code X} on the global granule take every stripe, in order, and still exclude whatever they conflict with.
+     * <p>
+     * Hierarchical locks live in their own tree and do not exclude {@link #getLock} locks. They are not reentrant, a
+     * thread holding one must not take another one it conflicts with on the same namespace.
+     */
+    @Override
+    public Lock getHierarchicalLock(Namespace namespace, String key, Level level, LockMode mode) {
+        String lockKey = key == null ? null : LockPaths.sanitizeKey(key);
+        List<Lock> locks = new ArrayList<>(level.ordinal() + 2);
+        for (Level granule : Level.values()) {
+            if (granule.ordinal() > level.ordinal()) {
+                break;
+            }
+            String scope = getScope(granule);
+            LockMode granuleMode = granule == level && lockKey == null ? mode : mode.getIntention();
+            if (granule == Level.GLOBAL) {
+                addGlobalGranuleLocks(locks, namespace, granuleMode, level == Level.GLOBAL ? lockKey : getScope(Level.TENANT));
+            } else {
+                locks.add(getIntentionLock(LockPaths.getGranuleLockPath(namespace, scope, null), granuleMode));
+            }
+            if (granule == level && lockKey != null) {
+                locks.add(getIntentionLock(LockPaths.getGranuleLockPath(namespace, scope, lockKey), mode));
+            }
+        }
+        return new CompositeLock(locks);
+    }
+
+    /* an intention on one stripe, picked by the given value if any, S or X on all of them */
+    private void addGlobalGranuleLocks(List<Lock> locks, Namespace namespace, LockMode mode, String stripeBy) {
+        int stripes = hierarchyStripes;
+        if (mode == LockMode.IS || mode == LockMode.IX) {
+            locks.add(getIntentionLock(LockPaths.getGlobalStripePath(namespace, stripeBy == null ? 0 : Math.floorMod(stripeBy.hashCode(), stripes)), mode));
+            return;
+        }
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            locks.add(getIntentionLock(LockPaths.getGlobalStripePath(namespace, stripe), mode));
+        }
+    }
+
+    private Lock getIntentionLock(String path, LockMode mode) {
+        List<LockingClient> clients = lockingClients.getClients(path);
+        if (clients.size() == 1) {
+            return new IntentionLock(clients.get(0), path, mode, getLockData());
+        }
+        List<Lock> locks = new ArrayList<>(clients.size());
+        for (LockingClient client : clients) {
+            locks.add(new IntentionLock(client, path, mode, getLockData()));
+        }
+        return new CompositeLock(locks);
+    }
+
+    @Override
+    public CompletableFuture<LockHandle> acquireAsync(Namespace namespace, String key, Level level, long timeout, TimeUnit unit) {
+        if (escalations.containsKey(namespace)) {
+            // a handle can not take the bucket lock, which is per thread
+            CompletableFuture<LockHandle> unsupported = new CompletableFuture<>();
+            unsupported.completeExceptionally(new UnsupportedOperationException("acquireAsync not supported for namespace: " + namespace + " with lock escalation"));
+            return unsupported;
+        }
+        String path = getLockPath(namespace, key, level);
+        return LockHandle.acquireAsync(lockingClients.getClients(path), path, getLockData(), timeout, unit);
+    }
+
+    @Override
+    public boolean isConnectionInterrupted() {
+        return lockingClients.isConnectionInterrupted();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.lock.exception.ConnectionInterruptedException;
+import com.uc.wms.lock.exception.DeadlockException;
+import com.uc.wms.lock.exception.LockingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Lock} view over a {@link CoalescingLockManager} path, with the same connection interruption semantics as
+ * {@link DistributedLock}.
+ */
+public class CoalescedLock implements Lock {
+
+    private static final Logger                   LOG = LoggerFactory.getLogger(CoalescedLock.class);
+
+    private final LockingClient                   client;
+
+    private final CoalescingLockManager           manager;
+
+    private final String                          path;
+
+    private final String                          section;
+
+    private final byte[]                          lockData;
+
+    private CoalescingLockManager.LockQueue       queue;
+
+    private long                                  lockTakenTime;
+
+    CoalescedLock(LockingClient client, CoalescingLockManager manager, String path, String section, byte[] lockData) {
+        this.client = client;
+        this.manager = manager;
+        this.path = path;
+        this.section = section;
+        this.lockData = lockData;
+    }
+
+    @Override
+    public void lock() {
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Not acquiring lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
+            throw onFailure(new ConnectionInterruptedException("Not acquiring lock on path: " + path + ", section: " + section + " as zookeeper connection was recently suspended/lost"));
+        }
+        acquireUninterruptibly(-1, TimeUnit.NANOSECONDS);
+        if (!onLockAcquired()) {
+            throw onFailure(new ConnectionInterruptedException("Released lock as zookeeper connection was recently suspended/lost on path: " + path + ", section: " + section));
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Interrupted before acquiring lock on path: " + path + ", section: " + section);
+        }
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Not acquiring lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
+            throw onFailure(new ConnectionInterruptedException("Not acquiring lock on path: " + path + ", section: " + section + " as zookeeper connection was recently suspended/lost"));
+        }
+        acquire(-1, TimeUnit.NANOSECONDS, true);
+        if (!onLockAcquired()) {
+            throw onFailure(new ConnectionInterruptedException("Released lock as zookeeper connection was recently suspended/lost on path: " + path + ", section: " + section));
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        return tryLock(0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) {
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Skipping to acquire lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
+            LockMetrics.onConnectionInterrupted(path);
+            return false;
+        }
+        return acquireUninterruptibly(time, unit) && onLockAcquired();
+    }
+
+    @Override
+    public void unlock() {
+        unlock(false);
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("not supported with CoalescedLock");
+    }
+
+    @Override
+    public String toString() {
+        return "LockPath: " + path;
+    }
+
+    private boolean acquireUninterruptibly(long time, TimeUnit unit) {
+        try {
+            return acquire(time, unit, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while acquiring lock on on path: " + path + ", section:" + section, e);
+            throw onFailure(new LockingException(e));
+        }
+    }
+
+    private boolean acquire(long time, TimeUnit unit, boolean interruptibly) throws InterruptedException {
+        if (queue != null) {
+            throw new IllegalMonitorStateException("Lock on path: " + path + " is already held by this instance");
+        }
+        long start = System.currentTimeMillis();
+        Object event = LockEvents.beginAcquire();
+        try {
+            queue = manager.acquire(path, lockData, time, unit, interruptibly);
+        } catch (InterruptedException e) {
+            LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+            LOG.warn("Interrupted while acquiring lock on path: {}, section:{}", path, section);
+            throw e;
+        } catch (DeadlockException e) {
+            LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+            LOG.warn(e.getMessage());
+            throw onFailure(e);
+        } catch (Exception e) {
+            LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+            LOG.error("Error while acquiring lock on on path: " + path + ", section:" + section, e);
+            throw onFailure(new LockingException(e));
+        }
+        if (queue == null) {
+            LockEvents.timedOut(event, path, section, System.currentTimeMillis() - start);
+            LOG.error("Unable to acquire lock on path: {}, section:{}", path, section);
+            LockMetrics.onTimeout(path);
+            return false;
+        }
+        lockTakenTime = System.currentTimeMillis();
+        LockEvents.acquired(event, path, section, lockTakenTime - start);
+        LockMetrics.onAcquired(path, section, lockTakenTime - start);
+        return true;
+    }
+
+    private LockingException onFailure(LockingException e) {
+        LockMetrics.onFailure(path, e);
+        return e;
+    }
+
+    /* checking if onLockAcquired executed successfully if not then releasing the lock */
+    private boolean onLockAcquired() {
+        boolean success = client.onLockAcquired(path);
+        if (!success) {
+            unlock(true);
+        }
+        return success;
+    }
+
+    private void unlock(boolean unlockForLockAcquiredOnInterruptedConnection) {
+        CoalescingLockManager.LockQueue held = queue;
+        if (held == null) {
+            throw new IllegalMonitorStateException("Lock on path: " + path + " is not held by this instance");
+        }
+        queue = null;
+        try {
+            long start = System.currentTimeMillis();
+            Object event = LockEvents.beginRelease();
+            manager.release(held, unlockForLockAcquiredOnInterruptedConnection);
+            LockEvents.released(event, path, section, start - lockTakenTime);
+            if (!unlockForLockAcquiredOnInterruptedConnection) {
+                LockMetrics.onReleased(path, section, start - lockTakenTime, System.currentTimeMillis() - start);
+            }
+        } catch (LockingException e) {
+            throw onFailure(e);
+        } catch (Exception e) {
+            throw onFailure(new LockingException(e));
+        } finally {
+            // if onLockAcquired returns false it means it has nothing to do with onLockReleased
+            if (!unlockForLockAcquiredOnInterruptedConnection) {
+                client.onLockReleased(path);
+            }
+        }
+    }
+}
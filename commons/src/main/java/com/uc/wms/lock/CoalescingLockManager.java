@@ -0,0 +1,334 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.lock.exception.DeadlockException;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces lock requests of one JVM in front of zookeeper. Local requesters of a path queue on a fair in-memory
+ * permit and only the head of that queue competes in zookeeper, so a node shows up as a single participant however
+ * many of its threads want the lock. When the holder releases while others are queued locally the znode is handed
+ * over as is instead of being deleted and recreated, up to {@code maxHandoffs} times in a row, after which it is
+ * released so that other nodes get their turn. With a positive {@code lingerMs} an idle znode is kept that long for
+ * a local requester to pick up.
+ * <p>
+ * Cross-node mutual exclusion is unchanged: the znode follows the InterProcessMutex protocol and is never handed
+ * over once the zookeeper connection was suspended/lost while it was held.
+ */
+public class CoalescingLockManager {
+
+    private static final Logger                    LOG                  = LoggerFactory.getLogger(CoalescingLockManager.class);
+
+    public static final int                        DEFAULT_MAX_HANDOFFS = 16;
+
+    private final LockingClient                    client;
+
+    private final long                             lingerMs;
+
+    private final int                              maxHandoffs;
+
+    private final ConcurrentMap<String, LockQueue> queues               = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService         lingerExecutor;
+
+    public CoalescingLockManager(LockingClient client) {
+        this(client, 0, DEFAULT_MAX_HANDOFFS);
+    }
+
+    public CoalescingLockManager(LockingClient client, long lingerMs, int maxHandoffs) {
+        LOG.info("Instantiating CoalescingLockManager with linger: {} ms and maxHandoffs: {}", lingerMs, maxHandoffs);
+        this.client = client;
+        this.lingerMs = lingerMs;
+        this.maxHandoffs = maxHandoffs;
+        this.lingerExecutor = lingerMs > 0 ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lock-linger");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public Lock getLock(String path) {
+        return getLock(path, "");
+    }
+
+    public Lock getLock(String path, String section) {
+        return getLock(path, section, null);
+    }
+
+    public Lock getLock(String path, String section, String lockData) {
+        return new CoalescedLock(client, this, path, section, StringUtils.isBlank(lockData) ? null : lockData.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return number of paths with local requesters or a lingering znode
+     */
+    public int getActivePathCount() {
+        return queues.size();
+    }
+
+    public void close() {
+        if (lingerExecutor != null) {
+            lingerExecutor.shutdownNow();
+        }
+        for (LockQueue queue : queues.values()) {
+            queue.expire();
+        }
+    }
+
+    /**
+     * @param time negative to wait forever
+     * @param interruptibly whether waiting forever on the local queue gives up on interrupt
+     * @return the queue now held by the caller, or null on timeout
+     */
+    LockQueue acquire(String path, byte[] lockData, long time, TimeUnit unit, boolean interruptibly) throws Exception {
+        long startNanos = System.nanoTime();
+        LockQueue queue = join(path, lockData);
+        boolean acquired = false;
+        try {
+            boolean permitted;
+            try {
+                permitted = acquirePermit(queue, time, unit, interruptibly);
+            } catch (InterruptedException | DeadlockException e) {
+                // a holder that saw us queued may have kept the znode for us
+                queue.reconcile();
+                throw e;
+            }
+            if (!permitted) {
+                queue.reconcile();
+                return null;
+            }
+            try {
+                acquired = queue.takeOver(time < 0 ? -1 : Math.max(0, unit.toNanos(time) - (System.nanoTime() - startNanos)));
+            } finally {
+                if (!acquired) {
+                    queue.permit.release();
+                }
+            }
+        } finally {
+            if (!acquired) {
+                leave(queue);
+            }
+        }
+        return acquired ? queue : null;
+    }
+
+    /**
+     * @param force release the znode even if it could be handed over
+     */
+    void release(LockQueue queue, boolean force) {
+        boolean handedOff = false;
+        try {
+            if (force || !queue.canHandOff()) {
+                if (!force && lingerExecutor != null && queue.canKeep()) {
+                    queue.linger();
+                } else {
+                    queue.releaseNode();
+                }
+            } else {
+                handedOff = true;
+            }
+        } finally {
+            queue.permit.release();
+            if (handedOff) {
+                // the waiter the znode was kept for may have given up meanwhile, e.g. on interrupt
+                queue.reconcile();
+            }
+            leave(queue);
+        }
+    }
+
+    /**
+     * Waits on the local queue, as a wait known to the deadlock detector if enabled. Such a wait is interruptible, for
+     * the detector to abort it, like the wait in zookeeper.
+     *
+     * @throws DeadlockException if the wait was aborted to break a deadlock
+     */
+    private boolean acquirePermit(LockQueue queue, long time, TimeUnit unit, boolean interruptibly) throws InterruptedException {
+        DeadlockDetector detector = client.getDeadlockDetector();
+        DeadlockDetector.Wait wait = detector == null ? null : detector.beginWait(queue.getPath());
+        boolean permitted = false;
+        try {
+            if (time >= 0) {
+                permitted = queue.permit.tryAcquire(time, unit);
+            } else if (interruptibly || wait != null) {
+                queue.permit.acquire();
+                permitted = true;
+            } else {
+                queue.permit.acquireUninterruptibly();
+                permitted = true;
+            }
+        } finally {
+            if (wait != null) {
+                List<String> cycle = detector.endWait(wait);
+                if (cycle != null && !permitted) {
+                    throw new DeadlockException("Aborted wait for lock on path: " + queue.getPath() + " to break deadlock: " + cycle, cycle);
+                }
+            }
+        }
+        return permitted;
+    }
+
+    private LockQueue join(String path, byte[] lockData) {
+        return queues.compute(path, (p, queue) -> {
+            LockQueue joined = queue == null ? new LockQueue(new DistributedMutex(client, p, lockData)) : queue;
+            joined.users++;
+            return joined;
+        });
+    }
+
+    private void leave(LockQueue queue) {
+        queues.computeIfPresent(queue.getPath(), (p, current) -> {
+            if (current == queue) {
+                current.users--;
+                return current.isIdle() ? null : current;
+            }
+            return current;
+        });
+    }
+
+    private void removeIfIdle(LockQueue queue) {
+        queues.computeIfPresent(queue.getPath(), (p, current) -> current == queue && current.isIdle() ? null : current);
+    }
+
+    /**
+     * Local queue of one lock path. {@code node} is only read or written by whoever holds {@code permit}.
+     */
+    final class LockQueue {
+        private final Semaphore             permit = new Semaphore(1, true);
+
+        private final DistributedMutex      mutex;
+
+        private volatile String             node;
+
+        private long                        epoch;
+
+        private int                         handoffs;
+
+        private volatile ScheduledFuture<?> lingerTask;
+
+        /* guarded by the queues map */
+        private int                         users;
+
+        LockQueue(DistributedMutex mutex) {
+            this.mutex = mutex;
+        }
+
+        String getPath() {
+            return mutex.getPath();
+        }
+
+        boolean isHandedOver() {
+            return handoffs > 0;
+        }
+
+        private boolean takeOver(long waitNanos) throws Exception {
+            ScheduledFuture<?> task = lingerTask;
+            if (task != null) {
+                task.cancel(false);
+                lingerTask = null;
+            }
+            if (node != null) {
+                if (epoch != client.getConnectionEpoch()) {
+                    LOG.warn("Not reusing lock node: {} as zookeeper connection was suspended/lost while it was held", node);
+                    releaseNode();
+                } else if (claimNode()) {
+                    handoffs++;
+                    return true;
+                } else {
+                    releaseNode();
+                }
+            }
+            long acquireEpoch = client.getConnectionEpoch();
+            String acquired = mutex.acquire(waitNanos, TimeUnit.NANOSECONDS);
+            if (acquired == null) {
+                return false;
+            }
+            node = acquired;
+            epoch = acquireEpoch;
+            handoffs = 0;
+            return true;
+        }
+
+        /* records the current thread as holder of the kept znode, false if that failed */
+        private boolean claimNode() {
+            try {
+                mutex.claim(node);
+                return true;
+            } catch (Exception e) {
+                LOG.warn("Not reusing lock node: " + node + " as its owner could not be updated", e);
+                return false;
+            }
+        }
+
+        private boolean canKeep() {
+            return node != null && handoffs < maxHandoffs && epoch == client.getConnectionEpoch();
+        }
+
+        private boolean canHandOff() {
+            return permit.hasQueuedThreads() && canKeep();
+        }
+
+        private void linger() {
+            lingerTask = lingerExecutor.schedule(this::expire, lingerMs, TimeUnit.MILLISECONDS);
+        }
+
+        private void expire() {
+            if (permit.tryAcquire()) {
+                try {
+                    releaseNode();
+                } finally {
+                    permit.release();
+                }
+                removeIfIdle(this);
+            }
+        }
+
+        /* releases a znode kept for waiters that all gave up, unless someone holds or takes the permit */
+        private void reconcile() {
+            if (permit.tryAcquire()) {
+                try {
+                    if (!permit.hasQueuedThreads()) {
+                        releaseNode();
+                    }
+                } finally {
+                    permit.release();
+                }
+            }
+        }
+
+        private void releaseNode() {
+            String held = node;
+            node = null;
+            handoffs = 0;
+            mutex.release(held);
+        }
+
+        private boolean isIdle() {
+            return users == 0 && node == null;
+        }
+
+        @Override
+        public String toString() {
+            return "LockQueue{path=" + getPath() + ", node=" + node + ", handoffs=" + handoffs + ", waiting=" + permit.getQueueLength() + '}';
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import com.uc.wms.lock.exception.LockingException;
+
+/**
+ * Takes several locks in the given order and releases them in reverse, all or nothing. The order has to be the same
+ * for every caller, e.g. {@link ShardedLockingClient#getClients(String)}.
+ */
+class CompositeLock implements Lock {
+
+    private final List<Lock> locks;
+
+    private int              held;
+
+    CompositeLock(List<Lock> locks) {
+        this.locks = locks;
+    }
+
+    static ReadWriteLock readWriteLock(List<ReadWriteLock> readWriteLocks) {
+        List<Lock> readLocks = new ArrayList<>(readWriteLocks.size());
+        List<Lock> writeLocks = new ArrayList<>(readWriteLocks.size());
+        for (ReadWriteLock readWriteLock : readWriteLocks) {
+            readLocks.add(readWriteLock.readLock());
+            writeLocks.add(readWriteLock.writeLock());
+        }
+        CompositeLock readLock = new CompositeLock(readLocks);
+        CompositeLock writeLock = new CompositeLock(writeLocks);
+        return new ReadWriteLock() {
+            @Override
+            public Lock readLock() {
+                return readLock;
+            }
+
+            @Override
+            public Lock writeLock() {
+                return writeLock;
+            }
+        };
+    }
+
+    @Override
+    public void lock() {
+        checkNotHeld();
+        boolean success = false;
+        try {
+            for (Lock lock : locks) {
+                lock.lock();
+                held++;
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                release();
+            }
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        checkNotHeld();
+        boolean success = false;
+        try {
+            for (Lock lock : locks) {
+                lock.lockInterruptibly();
+                held++;
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                release();
+            }
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        return tryLock(0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) {
+        checkNotHeld();
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        boolean success = false;
+        try {
+            for (Lock lock : locks) {
+                if (!lock.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                held++;
+            }
+            success = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LockingException(e);
+        } finally {
+            if (!success) {
+                release();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        if (held == 0) {
+            throw new IllegalMonitorStateException(this + " is not held by this instance");
+        }
+        release();
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("not supported with CompositeLock");
+    }
+
+    @Override
+    public String toString() {
+        return locks.toString();
+    }
+
+    private void checkNotHeld() {
+        if (held != 0) {
+            throw new IllegalMonitorStateException(this + " is already held by this instance");
+        }
+    }
+
+    /* releases whatever is held, in reverse order, and rethrows the first failure once everything was attempted */
+    private void release() {
+        RuntimeException failure = null;
+        while (held > 0) {
+            try {
+                locks.get(--held).unlock();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
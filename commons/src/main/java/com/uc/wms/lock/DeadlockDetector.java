@@ -0,0 +1,347 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.uc.wms.lock.exception.DeadlockException;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Wait-for graph deadlock detection between threads waiting for locks, across the JVMs sharing an ensemble. Lock
+ * nodes, of {@link DistributedLock}s and of every lock built on {@link DistributedMutex}, carry the identity of the
+ * thread holding them, {@code <jvm>-<thread>}, ahead of the lock data; a coalesced lock node handed over between local
+ * threads is rewritten for its new holder. Waits lasting longer than the detection interval, in zookeeper or on a
+ * local coalescing queue, are published as ephemeral {@code /DEADLOCK/<owner>} nodes holding the awaited path, and
+ * every interval each JVM follows the chain from each of its published waits: the owner of the first node of the
+ * awaited path, the path that owner awaits, and so on. A chain leading back to its waiter is a cycle.
+ * <p>
+ * Every JVM with a member in a cycle finds the same cycle and picks the same victim, the youngest wait. The JVM of the
+ * victim aborts its wait with a {@link DeadlockException} once it has seen the cycle in two consecutive passes, so
+ * that listings racing with releases do not abort phantom cycles. Shared read nodes, held by a changing set of
+ * threads, and nodes of {@link LockHandle}s, held by no thread, carry no owner identity and end a chain, deadlocks
+ * through them still surface as timeouts.
+ */
+class DeadlockDetector {
+
+    private static final Logger            LOG             = LoggerFactory.getLogger(DeadlockDetector.class);
+
+    static final String                    ROOT            = "/DEADLOCK";
+
+    static final char                      OWNER_SEPARATOR = '|';
+
+    private static final int               MAX_HOPS        = 32;
+
+    private final LockingClient            client;
+
+    private final long                     intervalMs;
+
+    private final String                   jvmId           = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    /* current waits of this JVM, by owner */
+    private final Map<String, Wait>        waits           = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor;
+
+    /* cycle of each local victim seen in the last pass, detector thread only */
+    private Map<String, String>            suspects        = Collections.emptyMap();
+
+    DeadlockDetector(LockingClient client, long intervalMs) {
+        this.client = client;
+        this.intervalMs = intervalMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lock-deadlock-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::detect, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param lockData
+     * @return data of a lock node created by the current thread
+     */
+    byte[] getLockNodeBytes(String lockData) {
+        return getLockNodeBytes(lockData == null ? null : lockData.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param lockData
+     * @return data of a lock node created by the current thread
+     */
+    byte[] getLockNodeBytes(byte[] lockData) {
+        byte[] owner = (getCurrentOwner() + OWNER_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+        if (lockData == null) {
+            return owner;
+        }
+        byte[] bytes = Arrays.copyOf(owner, owner.length + lockData.length);
+        System.arraycopy(lockData, 0, bytes, owner.length, lockData.length);
+        return bytes;
+    }
+
+    /**
+     * To be ended by {@link #endWait} in a finally block, by the same thread.
+     *
+     * @param path lock path the current thread is about to wait for
+     * @return
+     */
+    Wait beginWait(String path) {
+        Wait wait = new Wait(getCurrentOwner(), path, Thread.currentThread(), System.currentTimeMillis());
+        waits.put(wait.owner, wait);
+        return wait;
+    }
+
+    /**
+     * @param wait
+     * @return the cycle the wait was aborted for, null if it was not; the wait may have got the lock meanwhile
+     */
+    List<String> endWait(Wait wait) {
+        waits.remove(wait.owner, wait);
+        List<String> cycle;
+        boolean published;
+        synchronized (wait) {
+            wait.ended = true;
+            cycle = wait.abortedCycle;
+            if (cycle != null) {
+                // the interrupt was ours, not the application's
+                Thread.interrupted();
+            }
+            published = wait.published;
+        }
+        if (published) {
+            unpublish(wait);
+        }
+        return cycle;
+    }
+
+    private String getCurrentOwner() {
+        return jvmId + '-' + Thread.currentThread().getId();
+    }
+
+    private void detect() {
+        try {
+            long now = System.currentTimeMillis();
+            Map<String, String> cycles = new HashMap<>();
+            for (Wait wait : waits.values()) {
+                if (now - wait.startMillis < intervalMs || (!wait.published && !publish(wait))) {
+                    continue;
+                }
+                List<WaitInfo> cycle = findCycle(wait);
+                if (cycle == null) {
+                    continue;
+                }
+                WaitInfo victim = Collections.max(cycle, Comparator.<WaitInfo> comparingLong(info -> info.startMillis).thenComparing(info -> info.owner));
+                Wait victimWait = waits.get(victim.owner);
+                if (victimWait == null || victimWait.startMillis != victim.startMillis) {
+                    // a remote victim, its own JVM aborts it
+                    continue;
+                }
+                String signature = getSignature(cycle);
+                if (signature.equals(suspects.get(victim.owner))) {
+                    abort(victimWait, describe(cycle, cycle.indexOf(victim)));
+                } else {
+                    cycles.put(victim.owner, signature);
+                }
+            }
+            suspects = cycles;
+        } catch (Exception e) {
+            LOG.error("Error while detecting deadlocks on destination: " + client.getDestination(), e);
+        }
+    }
+
+    /* the waits of the cycle through the given one, starting with it, null if there is none */
+    private List<WaitInfo> findCycle(Wait start) throws Exception {
+        List<WaitInfo> chain = new ArrayList<>();
+        chain.add(new WaitInfo(start.owner, start.path, start.startMillis));
+        String path = start.path;
+        for (int hop = 0; hop < MAX_HOPS; hop++) {
+            String holder = getHolder(path);
+            if (holder == null) {
+                return null;
+            }
+            if (holder.equals(start.owner)) {
+                // on the first hop the wait just got its lock
+                return hop == 0 ? null : chain;
+            }
+            for (WaitInfo info : chain) {
+                if (info.owner.equals(holder)) {
+                    // a cycle not through the start, its own members find it
+                    return null;
+                }
+            }
+            WaitInfo next = getWait(holder);
+            if (next == null) {
+                return null;
+            }
+            chain.add(next);
+            path = next.path;
+        }
+        return null;
+    }
+
+    /* owner of the first lock node of the path, null if it has none or no owner identity */
+    private String getHolder(String path) throws Exception {
+        CuratorFramework curator = client.getLockingClient();
+        List<String> children;
+        try {
+            children = curator.getChildren().forPath(path);
+        } catch (KeeperException.NoNodeException e) {
+            return null;
+        }
+        if (children.isEmpty()) {
+            return null;
+        }
+        String first = Collections.min(children, Comparator.comparing(DistributedMutex::getSequence));
+        byte[] data;
+        try {
+            data = curator.getData().forPath(ZKPaths.makePath(path, first));
+        } catch (KeeperException.NoNodeException e) {
+            return null;
+        }
+        return getOwner(data);
+    }
+
+    private WaitInfo getWait(String owner) throws Exception {
+        Wait local = waits.get(owner);
+        if (local != null) {
+            return new WaitInfo(owner, local.path, local.startMillis);
+        }
+        if (owner.startsWith(jvmId + '-')) {
+            // a local thread not waiting
+            return null;
+        }
+        byte[] data;
+        try {
+            data = client.getLockingClient().getData().forPath(ZKPaths.makePath(ROOT, owner));
+        } catch (KeeperException.NoNodeException e) {
+            return null;
+        }
+        String value = new String(data, StandardCharsets.UTF_8);
+        int index = value.lastIndexOf('\n');
+        return index < 0 ? null : new WaitInfo(owner, value.substring(0, index), Long.parseLong(value.substring(index + 1)));
+    }
+
+    private boolean publish(Wait wait) throws Exception {
+        String node = ZKPaths.makePath(ROOT, wait.owner);
+        byte[] data = (wait.path + '\n' + wait.startMillis).getBytes(StandardCharsets.UTF_8);
+        CuratorFramework curator = client.getLockingClient();
+        try {
+            curator.create().creatingParentContainersIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(node, data);
+        } catch (KeeperException.NodeExistsException e) {
+            // left over by an earlier wait of the thread
+            curator.setData().forPath(node, data);
+        }
+        synchronized (wait) {
+            if (!wait.ended) {
+                wait.published = true;
+                return true;
+            }
+        }
+        unpublish(wait);
+        return false;
+    }
+
+    private void unpublish(Wait wait) {
+        String node = ZKPaths.makePath(ROOT, wait.owner);
+        try {
+            client.getLockingClient().delete().guaranteed().inBackground().forPath(node);
+        } catch (Exception e) {
+            LOG.error("Failed to delete wait node: " + node, e);
+        }
+    }
+
+    private void abort(Wait wait, List<String> cycle) {
+        synchronized (wait) {
+            if (wait.ended || wait.abortedCycle != null) {
+                return;
+            }
+            wait.abortedCycle = cycle;
+            wait.thread.interrupt();
+        }
+        LOG.warn("Aborting wait of thread: {} for lock on path: {} to break deadlock: {}", wait.thread.getName(), wait.path, cycle);
+    }
+
+    static String getOwner(byte[] lockNodeBytes) {
+        if (lockNodeBytes == null) {
+            return null;
+        }
+        String data = new String(lockNodeBytes, StandardCharsets.UTF_8);
+        int index = data.indexOf(OWNER_SEPARATOR);
+        return index > 0 ? data.substring(0, index) : null;
+    }
+
+    /* same for every rotation of the cycle */
+    private static String getSignature(List<WaitInfo> cycle) {
+        TreeSet<String> waits = new TreeSet<>();
+        for (WaitInfo info : cycle) {
+            waits.add(info.owner + '@' + info.startMillis);
+        }
+        return waits.toString();
+    }
+
+    private static List<String> describe(List<WaitInfo> cycle, int from) {
+        List<String> description = new ArrayList<>(cycle.size());
+        for (int i = 0; i < cycle.size(); i++) {
+            WaitInfo info = cycle.get((from + i) % cycle.size());
+            description.add(info.owner + " -> " + info.path);
+        }
+        return description;
+    }
+
+    static final class Wait {
+        private final String owner;
+        private final String path;
+        private final Thread thread;
+        private final long   startMillis;
+        /* guarded by this */
+        private boolean      published;
+        private boolean      ended;
+        private List<String> abortedCycle;
+
+        Wait(String owner, String path, Thread thread, long startMillis) {
+            this.owner = owner;
+            this.path = path;
+            this.thread = thread;
+            this.startMillis = startMillis;
+        }
+    }
+
+    private static final class WaitInfo {
+        private final String owner;
+        private final String path;
+        private final long   startMillis;
+
+        WaitInfo(String owner, String path, long startMillis) {
+            this.owner = owner;
+            this.path = path;
+            this.startMillis = startMillis;
+        }
+    }
+}
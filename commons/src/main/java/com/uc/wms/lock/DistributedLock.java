@@ -8,10 +8,13 @@
 package com.uc.wms.lock;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 
+import com.uc.wms.lock.exception.DeadlockException;
+import com.uc.wms.lock.exception.LockRejectedException;
 import com.uc.wms.lock.exception.LockingException;
 import com.uc.wms.lock.exception.ConnectionInterruptedException;
 import org.apache.commons.lang3.StringUtils;
@@ -33,8 +36,11 @@ public class DistributedLock implements Lock {
 
     private LockingClient       client;
 
+    /* a plain mutex, whose lock path is busy whenever it has children */
+    private final boolean       exclusive;
+
     DistributedLock(LockingClient client, InterProcessMutex interProcessMutex, String path) {
-        this(client, interProcessMutex, path, "");
+        this(client, interProcessMutex, path, "", false);
     }
 
     public DistributedLock(LockingClient client, String path) {
@@ -46,41 +52,85 @@ public class DistributedLock implements Lock {
     }
 
     public DistributedLock(LockingClient client, String path, String section, String lockData) {
-        this(client, buildInterProcessMutex(client, path, lockData), path, section);
+        this(client, buildInterProcessMutex(client, path, lockData), path, section, true);
     }
 
-    private DistributedLock(LockingClient client, InterProcessMutex interProcessMutex, String path, String section) {
+    private DistributedLock(LockingClient client, InterProcessMutex interProcessMutex, String path, String section, boolean exclusive) {
         this.client = client;
         this.distributedMutex = interProcessMutex;
         this.path = path;
         this.section = section;
+        this.exclusive = exclusive;
     }
 
     @Override
     public void lock() {
         long start = System.currentTimeMillis();
         if (!client.isConnectionInterrupted()) {
+            Object event = LockEvents.beginAcquire();
             try {
-                LOG.info("Trying to acquire lock via lock method on path: {}, section:{}", path, section);
-                distributedMutex.acquire();
+                acquireMutex(-1, null);
                 lockTakenTime = System.currentTimeMillis();
-                LOG.info("Acquired lock on path: {}, section:{}, in {} ms", path, section, (lockTakenTime - start));
+            } catch (DeadlockException e) {
+                LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+                LOG.warn(e.getMessage());
+                throw onFailure(e);
             } catch (Exception e) {
+                LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
                 LOG.error("Error while acquiring lock on on path: " + path + ", section:" + section, e);
-                throw new LockingException(e);
+                throw onFailure(new LockingException(e));
             }
+            LockEvents.acquired(event, path, section, lockTakenTime - start);
             if (!onLockAcquired()) {
-                throw new ConnectionInterruptedException("Released lock as zookeeper connection was recently suspended/lost on path: " + path + ", section: " + section);
+                throw onFailure(new ConnectionInterruptedException("Released lock as zookeeper connection was recently suspended/lost on path: " + path + ", section: " + section));
             }
+            LockMetrics.onAcquired(path, section, lockTakenTime - start);
         } else {
             LOG.error("Not acquiring lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
-            throw new ConnectionInterruptedException("Not acquiring lock on path: " + path + ", section: " + section +" as zookeeper connection was recently suspended/lost");
+            throw onFailure(new ConnectionInterruptedException("Not acquiring lock on path: " + path + ", section: " + section +" as zookeeper connection was recently suspended/lost"));
         }
     }
 
     @Override
     public void lockInterruptibly() throws InterruptedException {
-        throw new UnsupportedOperationException("not supported with DistributedLock");
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Interrupted before acquiring lock on path: " + path + ", section: " + section);
+        }
+        long start = System.currentTimeMillis();
+        if (!client.isConnectionInterrupted()) {
+            Object event = LockEvents.beginAcquire();
+            try {
+                acquireMutex(-1, null);
+                lockTakenTime = System.currentTimeMillis();
+            } catch (InterruptedException e) {
+                LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+                LOG.warn("Interrupted while acquiring lock on path: {}, section:{}", path, section);
+                throw e;
+            } catch (DeadlockException e) {
+                LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+                LOG.warn(e.getMessage());
+                throw onFailure(e);
+            } catch (Exception e) {
+                LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+                // curator restores the interrupt flag when it gives up because of an interrupt
+                if (Thread.interrupted()) {
+                    LOG.warn("Interrupted while acquiring lock on path: {}, section:{}", path, section);
+                    InterruptedException interrupted = new InterruptedException("Interrupted while acquiring lock on path: " + path + ", section: " + section);
+                    interrupted.initCause(e);
+                    throw interrupted;
+                }
+                LOG.error("Error while acquiring lock on on path: " + path + ", section:" + section, e);
+                throw onFailure(new LockingException(e));
+            }
+            LockEvents.acquired(event, path, section, lockTakenTime - start);
+            if (!onLockAcquired()) {
+                throw onFailure(new ConnectionInterruptedException("Released lock as zookeeper connection was recently suspended/lost on path: " + path + ", section: " + section));
+            }
+            LockMetrics.onAcquired(path, section, lockTakenTime - start);
+        } else {
+            LOG.error("Not acquiring lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
+            throw onFailure(new ConnectionInterruptedException("Not acquiring lock on path: " + path + ", section: " + section +" as zookeeper connection was recently suspended/lost"));
+        }
     }
 
     @Override
@@ -88,29 +138,52 @@ public class DistributedLock implements Lock {
         return tryLock(0, TimeUnit.NANOSECONDS);
     }
 
+    /**
+     * Without a wait time a lock that looks busy in the {@link LockOccupancyCache} fails right away, without writing to
+     * zookeeper. Pollers may hence miss a lock released within the watch latency.
+     */
     @Override
     public boolean tryLock(long time, TimeUnit unit) {
         long start = System.currentTimeMillis();
         boolean acquired = false;
         if (!client.isConnectionInterrupted()) {
-            LOG.info("Trying to acquire lock via tryLock method on path: {}, section:{}", path, section);
+            Object event = LockEvents.beginAcquire();
             try {
-                acquired = distributedMutex.acquire(time, unit);
+                if (time <= 0 && isBusy()) {
+                    LockEvents.timedOut(event, path, section, 0);
+                    LockMetrics.onTimeout(path);
+                    return false;
+                }
+                if (time > 0) {
+                    checkAdmission(unit.toMillis(time));
+                }
+                acquired = acquireMutex(time, unit);
                 if (acquired) {
                     lockTakenTime = System.currentTimeMillis();
-                    LOG.info("Acquired lock on path: {}, section:{}, in {} ms", path, section, (lockTakenTime - start));
+                    LockEvents.acquired(event, path, section, lockTakenTime - start);
                     acquired = onLockAcquired();
+                    if (acquired) {
+                        LockMetrics.onAcquired(path, section, lockTakenTime - start);
+                    }
                 } else {
+                    LockEvents.timedOut(event, path, section, System.currentTimeMillis() - start);
                     logDistributedMutexNodeDetails();
                     LOG.error("Unable to acquire lock on path: {}, section:{}", path, section);
+                    LockMetrics.onTimeout(path);
                 }
+            } catch (LockRejectedException | DeadlockException e) {
+                LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+                LOG.warn(e.getMessage());
+                throw onFailure(e);
             } catch (Exception e) {
+                LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
                 logDistributedMutexNodeDetails();
                 LOG.error("Error while acquiring lock on on path: " + path + ", section:" + section, e);
-                throw new LockingException(e);
+                throw onFailure(new LockingException(e));
             }
         } else {
             LOG.error("Skipping to acquire lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
+            LockMetrics.onConnectionInterrupted(path);
         }
         return acquired;
     }
@@ -130,6 +203,54 @@ public class DistributedLock implements Lock {
         return "LockPath: " + path;
     }
 
+    /* reentrant acquisitions of this instance bypass the cache, the lock path is busy with our own node */
+    private boolean isBusy() throws Exception {
+        return exclusive && !distributedMutex.isOwnedByCurrentThread() && client.getOccupancyCache().isOccupied(path);
+    }
+
+    private void checkAdmission(long waitMs) throws Exception {
+        LockAdmission admission = client.getAdmission();
+        if (admission == null || !exclusive || distributedMutex.isOwnedByCurrentThread()) {
+            return;
+        }
+        long estimatedWaitMs = admission.estimateWaitMillis(path);
+        if (estimatedWaitMs > waitMs) {
+            throw new LockRejectedException("Rejected lock on path: " + path + ", section: " + section + " as the estimated wait of " + estimatedWaitMs
+                    + " ms exceeds the wait time of " + waitMs + " ms", estimatedWaitMs);
+        }
+    }
+
+    /**
+     * Acquires the mutex as a wait known to the deadlock detector, if enabled.
+     *
+     * @param time
+     * @param unit null to wait forever
+     * @return
+     * @throws DeadlockException if the wait was aborted to break a deadlock
+     */
+    private boolean acquireMutex(long time, TimeUnit unit) throws Exception {
+        DeadlockDetector detector = client.getDeadlockDetector();
+        DeadlockDetector.Wait wait = detector == null ? null : detector.beginWait(path);
+        boolean acquired = false;
+        try {
+            if (unit == null) {
+                distributedMutex.acquire();
+                acquired = true;
+            } else {
+                acquired = distributedMutex.acquire(time, unit);
+            }
+        } finally {
+            if (wait != null) {
+                List<String> cycle = detector.endWait(wait);
+                // a wait that got its lock anyway is not failed, the cycle is broken either way
+                if (cycle != null && !acquired) {
+                    throw new DeadlockException("Aborted wait for lock on path: " + path + ", section: " + section + " to break deadlock: " + cycle, cycle);
+                }
+            }
+        }
+        return acquired;
+    }
+
     /* checking if onLockAcquired executed successfully if not then releasing the lock */
     private boolean onLockAcquired() {
         boolean success = client.onLockAcquired(path);
@@ -142,13 +263,22 @@ public class DistributedLock implements Lock {
     private void unlock(boolean unlockForLockAcquiredOnInterruptedConnection) {
         try {
             long start = System.currentTimeMillis();
-            LOG.info("Releasing lock {}: {}, section: {} holdTime:{}",
-                    (unlockForLockAcquiredOnInterruptedConnection ? "because of zookeeper connection lost/suspended before acquisition lock on path" : "on path"), path, section,
-                    (System.currentTimeMillis() - lockTakenTime));
+            if (unlockForLockAcquiredOnInterruptedConnection) {
+                LOG.warn("Releasing lock because of zookeeper connection lost/suspended before acquisition lock on path: {}, section: {}", path, section);
+            }
+            Object event = LockEvents.beginRelease();
             distributedMutex.release();
-            LOG.info("Released lock on path: {}, section:{} in {} ms", path, section, System.currentTimeMillis() - start);
+            long end = System.currentTimeMillis();
+            LockEvents.released(event, path, section, start - lockTakenTime);
+            if (!unlockForLockAcquiredOnInterruptedConnection) {
+                LockMetrics.onReleased(path, section, start - lockTakenTime, end - start);
+                LockAdmission admission = client.getAdmission();
+                if (admission != null && exclusive) {
+                    admission.onReleased(path, start - lockTakenTime);
+                }
+            }
         } catch (Exception e) {
-            throw new LockingException(e);
+            throw onFailure(new LockingException(e));
         } finally {
             // if onLockAcquired returns false it means it has nothing to do with onLockReleased
             if (!unlockForLockAcquiredOnInterruptedConnection) {
@@ -157,6 +287,11 @@ public class DistributedLock implements Lock {
         }
     }
 
+    private LockingException onFailure(LockingException e) {
+        LockMetrics.onFailure(path, e);
+        return e;
+    }
+
     private void logDistributedMutexNodeDetails() {
         try {
             distributedMutex.getParticipantNodes().stream().map(node -> {
@@ -185,6 +320,10 @@ public class DistributedLock implements Lock {
         return new InterProcessMutex(client.getLockingClient(), path) {
             @Override
             protected byte[] getLockNodeBytes() {
+                DeadlockDetector detector = client.getDeadlockDetector();
+                if (detector != null) {
+                    return detector.getLockNodeBytes(StringUtils.isBlank(lockData) ? null : lockData);
+                }
                 return StringUtils.isBlank(lockData) ? super.getLockNodeBytes() : lockData.getBytes();
             }
         };
@@ -9,99 +9,83 @@ package com.uc.wms.lock;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Tracks the locks held by each thread against the zookeeper connection epoch. A thread records the epoch it took its
+ * first lock under; a suspension/loss bumps the epoch, after which the thread is interrupted until it has released all
+ * its locks. Nothing here takes a lock: the per thread metadata is confined to its thread and interruption is a single
+ * increment.
+ */
 public class DistributedLockingHelper {
-    private static final Logger              LOG                = LoggerFactory.getLogger(DistributedLockingHelper.class);
+    private static final Logger              LOG                 = LoggerFactory.getLogger(DistributedLockingHelper.class);
+
+    private final ThreadLocal<LocksMetadata> locksMetadata       = ThreadLocal.withInitial(LocksMetadata::new);
 
-    private final Map<Thread, LocksMetadata> locksMetadataCache = new ConcurrentHashMap<>();
+    /* bumped on every suspension/loss, lets locks that outlive a thread detect interruption */
+    private final AtomicLong                 connectionEpoch     = new AtomicLong();
 
-    private final ReadWriteLock              readWriteLock      = new ReentrantReadWriteLock();
+    private final LongAdder                  threadsHoldingLocks = new LongAdder();
 
     public boolean addCurrentThreadMetadata(String path) {
-        readWriteLock.readLock().lock();
-        try {
-            Thread key = Thread.currentThread();
-            LocksMetadata locksMetadata = locksMetadataCache.get(key);
-            if (locksMetadata == null) {
-                locksMetadata = new LocksMetadata();
-                locksMetadataCache.put(key, locksMetadata);
-            } else if (locksMetadata.isInterrupted()) {
-                LOG.error("Unable to add lock meta data because of interruption. Data: {}", locksMetadata);
-                return false;
-            }
-            locksMetadata.add(path);
-        } finally {
-            readWriteLock.readLock().unlock();
+        LocksMetadata metadata = locksMetadata.get();
+        long epoch = connectionEpoch.get();
+        if (metadata.isEmpty()) {
+            metadata.epoch = epoch;
+            threadsHoldingLocks.increment();
+        } else if (metadata.epoch != epoch) {
+            LOG.error("Unable to add lock meta data because of interruption. Data: {}, connectionEpoch: {}", metadata, epoch);
+            return false;
         }
+        metadata.add(path);
         return true;
     }
 
     public void removeCurrentThreadMetadata(String path) {
-        readWriteLock.readLock().lock();
-        try {
-            Thread thread = Thread.currentThread();
-            LocksMetadata details = locksMetadataCache.get(thread);
-            if (details != null) {
-                details.remove(path);
-                if (details.isEmpty()) {
-                    locksMetadataCache.remove(thread);
-                }
+        LocksMetadata metadata = locksMetadata.get();
+        if (!metadata.isEmpty()) {
+            metadata.remove(path);
+            if (metadata.isEmpty()) {
+                threadsHoldingLocks.decrement();
             }
-        } finally {
-            readWriteLock.readLock().unlock();
         }
     }
 
     public void doInterruptLocks() {
-        readWriteLock.writeLock().lock();
-        try {
-            for (Map.Entry<Thread, LocksMetadata> entry : locksMetadataCache.entrySet()) {
-                LocksMetadata locksMetadata = entry.getValue();
-                if(!locksMetadata.isInterrupted()) {
-                    LOG.info("Marking zookeeper lock's metadata as interrupted for thread({}) because zookeeper connection lost/interrupted after last readWriteLock acquired!!", entry.getKey().getName());
-                    locksMetadata.interrupt();
-                }
-            }
-        } finally {
-            readWriteLock.writeLock().unlock();
-        }
+        long epoch = connectionEpoch.incrementAndGet();
+        LOG.info("Marking zookeeper locks of {} thread(s) as interrupted, connectionEpoch: {}", threadsHoldingLocks.sum(), epoch);
     }
 
     public boolean isConnectionInterrupted() {
-        readWriteLock.readLock().lock();
-        LocksMetadata locksMetadata = locksMetadataCache.get(Thread.currentThread());
-        boolean interrupted = locksMetadata != null && locksMetadata.isInterrupted();
-        readWriteLock.readLock().unlock();
-        return interrupted;
+        LocksMetadata metadata = locksMetadata.get();
+        return !metadata.isEmpty() && metadata.epoch != connectionEpoch.get();
+    }
+
+    public long getConnectionEpoch() {
+        return connectionEpoch.get();
     }
 
     public int getThreadCountHoldingLock() {
-        return this.locksMetadataCache.keySet().size();
+        return threadsHoldingLocks.intValue();
     }
 
+    /* only ever touched by its own thread */
     private static class LocksMetadata {
-        private Map<String, Integer> lockPaths = new HashMap<>();
-        private volatile boolean     interrupted;
+        private final Map<String, Integer> lockPaths = new HashMap<>(4);
+        private long                       epoch;
 
         void add(String path) {
-            Integer value = lockPaths.get(path);
-            if (value == null) {
-                lockPaths.put(path, 1);
-            } else {
-                lockPaths.put(path, value + 1);
-            }
+            lockPaths.merge(path, 1, Integer::sum);
         }
 
         void remove(String path) {
             Integer counter = lockPaths.get(path);
             if (counter == null || counter == 0) {
-                LOG.error("LocksMetadata.remove -- Invalid path received: {}, interrupted: {}, acquired paths: {}", path, interrupted, lockPaths);
+                LOG.error("LocksMetadata.remove -- Invalid path received: {}, epoch: {}, acquired paths: {}", path, epoch, lockPaths);
             } else if (counter == 1) {
                 lockPaths.remove(path);
             } else {
@@ -113,19 +97,11 @@ public class DistributedLockingHelper {
             return lockPaths.isEmpty();
         }
 
-        boolean isInterrupted() {
-            return interrupted;
-        }
-
-        void interrupt() {
-            this.interrupted = true;
-        }
-
         @Override
         public String toString() {
             return "LocksMetadata{" +
                     "lockPaths=" + lockPaths +
-                    ", interrupted=" + interrupted +
+                    ", epoch=" + epoch +
                     '}';
         }
     }
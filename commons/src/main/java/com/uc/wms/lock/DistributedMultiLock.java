@@ -0,0 +1,284 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.lock.exception.ConnectionInterruptedException;
+import com.uc.wms.lock.exception.DeadlockException;
+import com.uc.wms.lock.exception.LockingException;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One lock over several paths. Paths are taken in their natural (canonical) order so two callers asking for the same
+ * set in different orders can not deadlock. All lock nodes are created in parallel and when every one of them is
+ * immediately the owner, which is the uncontended case, the whole set costs a single round trip of creates plus one
+ * of child listings instead of one acquisition per path. Otherwise the nodes past the first busy path are given back
+ * and the rest is taken one by one in order. Release deletes every node in one pipelined batch.
+ */
+public class DistributedMultiLock implements Lock {
+
+    private static final Logger          LOG = LoggerFactory.getLogger(DistributedMultiLock.class);
+
+    private final LockingClient          client;
+
+    private final List<DistributedMutex> mutexes;
+
+    private final String                 section;
+
+    private String[]                     nodes;
+
+    private long                         lockTakenTime;
+
+    public DistributedMultiLock(LockingClient client, Collection<String> paths, String section) {
+        this(client, paths, section, null);
+    }
+
+    public DistributedMultiLock(LockingClient client, Collection<String> paths, String section, String lockData) {
+        byte[] data = StringUtils.isBlank(lockData) ? null : lockData.getBytes(StandardCharsets.UTF_8);
+        this.client = client;
+        this.section = section;
+        this.mutexes = new ArrayList<>(paths.size());
+        for (String path : new TreeSet<>(paths)) {
+            mutexes.add(new DistributedMutex(client, path, data));
+        }
+    }
+
+    @Override
+    public void lock() {
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Not acquiring locks on paths: {}, section:{} as zookeeper connection was recently suspended/lost", getPaths(), section);
+            throw new ConnectionInterruptedException("Not acquiring locks on paths: " + getPaths() + ", section: " + section + " as zookeeper connection was recently suspended/lost");
+        }
+        if (!acquireUninterruptibly(-1, TimeUnit.NANOSECONDS)) {
+            throw new LockingException("Unable to acquire locks on paths: " + getPaths() + ", section: " + section);
+        }
+        if (!onLockAcquired()) {
+            throw new ConnectionInterruptedException("Released locks as zookeeper connection was recently suspended/lost on paths: " + getPaths() + ", section: " + section);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Interrupted before acquiring locks on paths: " + getPaths() + ", section: " + section);
+        }
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Not acquiring locks on paths: {}, section:{} as zookeeper connection was recently suspended/lost", getPaths(), section);
+            throw new ConnectionInterruptedException("Not acquiring locks on paths: " + getPaths() + ", section: " + section + " as zookeeper connection was recently suspended/lost");
+        }
+        if (!acquire(-1, TimeUnit.NANOSECONDS, true)) {
+            throw new LockingException("Unable to acquire locks on paths: " + getPaths() + ", section: " + section);
+        }
+        if (!onLockAcquired()) {
+            throw new ConnectionInterruptedException("Released locks as zookeeper connection was recently suspended/lost on paths: " + getPaths() + ", section: " + section);
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        return tryLock(0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) {
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Skipping to acquire locks on paths: {}, section:{} as zookeeper connection was recently suspended/lost", getPaths(), section);
+            return false;
+        }
+        return acquireUninterruptibly(time, unit) && onLockAcquired();
+    }
+
+    @Override
+    public void unlock() {
+        unlock(false);
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("not supported with DistributedMultiLock");
+    }
+
+    @Override
+    public String toString() {
+        return "LockPaths: " + getPaths();
+    }
+
+    public List<String> getPaths() {
+        List<String> paths = new ArrayList<>(mutexes.size());
+        for (DistributedMutex mutex : mutexes) {
+            paths.add(mutex.getPath());
+        }
+        return paths;
+    }
+
+    private boolean acquireUninterruptibly(long time, TimeUnit unit) {
+        try {
+            return acquire(time, unit, false);
+        } catch (InterruptedException e) {
+            // not thrown when uninterruptible
+            throw new LockingException(e);
+        }
+    }
+
+    /**
+     * @param interruptibly whether an interrupt while waiting gives up with an InterruptedException rather than a
+     *            LockingException
+     */
+    private boolean acquire(long time, TimeUnit unit, boolean interruptibly) throws InterruptedException {
+        if (nodes != null) {
+            throw new IllegalMonitorStateException("Locks on paths: " + getPaths() + " are already held by this instance");
+        }
+        long startNanos = System.nanoTime();
+        long waitNanos = time < 0 ? -1 : unit.toNanos(time);
+        int count = mutexes.size();
+        String[] acquired = new String[count];
+        boolean success = false;
+        try {
+            List<CompletableFuture<String>> creates = new ArrayList<>(count);
+            for (DistributedMutex mutex : mutexes) {
+                creates.add(mutex.createNodeAsync());
+            }
+            Exception createFailure = null;
+            for (int i = 0; i < count; i++) {
+                try {
+                    acquired[i] = creates.get(i).get();
+                } catch (ExecutionException e) {
+                    if (createFailure == null) {
+                        createFailure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                } catch (InterruptedException e) {
+                    // nodes still being created are deleted once they are
+                    for (int j = i; j < count; j++) {
+                        DistributedMutex mutex = mutexes.get(j);
+                        creates.get(j).thenAccept(mutex::releaseInBackground);
+                    }
+                    throw e;
+                }
+            }
+            if (createFailure != null) {
+                throw createFailure;
+            }
+            List<CompletableFuture<List<String>>> listings = new ArrayList<>(count);
+            for (DistributedMutex mutex : mutexes) {
+                listings.add(mutex.getSortedChildrenAsync());
+            }
+            int firstBusy = count;
+            for (int i = 0; i < count && firstBusy == count; i++) {
+                if (!DistributedMutex.isOwner(listings.get(i).get(), acquired[i])) {
+                    firstBusy = i;
+                }
+            }
+            // never queue on a path while holding a place on a later one, that would defeat the ordering
+            for (int i = firstBusy + 1; i < count; i++) {
+                mutexes.get(i).releaseInBackground(acquired[i]);
+                acquired[i] = null;
+            }
+            for (int i = firstBusy; i < count; i++) {
+                DistributedMutex mutex = mutexes.get(i);
+                if (acquired[i] != null) {
+                    if (!mutex.awaitOwnership(acquired[i], startNanos, waitNanos)) {
+                        LOG.error("Unable to acquire lock on path: {}, section:{}", mutex.getPath(), section);
+                        return false;
+                    }
+                } else {
+                    acquired[i] = mutex.acquire(waitNanos < 0 ? -1 : Math.max(0, waitNanos - (System.nanoTime() - startNanos)), TimeUnit.NANOSECONDS);
+                    if (acquired[i] == null) {
+                        LOG.error("Unable to acquire lock on path: {}, section:{}", mutex.getPath(), section);
+                        return false;
+                    }
+                }
+            }
+            success = true;
+        } catch (InterruptedException e) {
+            if (!interruptibly) {
+                LOG.error("Error while acquiring locks on paths: " + getPaths() + ", section:" + section, e);
+                throw new LockingException(e);
+            }
+            LOG.warn("Interrupted while acquiring locks on paths: {}, section:{}", getPaths(), section);
+            throw e;
+        } catch (DeadlockException e) {
+            LOG.warn(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            // curator restores the interrupt flag when it gives up because of an interrupt
+            if (interruptibly && Thread.interrupted()) {
+                LOG.warn("Interrupted while acquiring locks on paths: {}, section:{}", getPaths(), section);
+                InterruptedException interrupted = new InterruptedException("Interrupted while acquiring locks on paths: " + getPaths() + ", section: " + section);
+                interrupted.initCause(e);
+                throw interrupted;
+            }
+            LOG.error("Error while acquiring locks on paths: " + getPaths() + ", section:" + section, e);
+            throw new LockingException(e);
+        } finally {
+            if (!success) {
+                releaseNodes(acquired);
+            }
+        }
+        nodes = acquired;
+        lockTakenTime = System.currentTimeMillis();
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        for (DistributedMutex mutex : mutexes) {
+            LockEvents.acquired(null, mutex.getPath(), section, waitMs);
+        }
+        return true;
+    }
+
+    /* checking if onLockAcquired executed successfully for every path if not then releasing the locks */
+    private boolean onLockAcquired() {
+        for (int i = 0; i < mutexes.size(); i++) {
+            if (!client.onLockAcquired(mutexes.get(i).getPath())) {
+                for (int j = 0; j < i; j++) {
+                    client.onLockReleased(mutexes.get(j).getPath());
+                }
+                unlock(true);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void unlock(boolean unlockForLockAcquiredOnInterruptedConnection) {
+        String[] held = nodes;
+        if (held == null) {
+            throw new IllegalMonitorStateException("Locks on paths: " + getPaths() + " are not held by this instance");
+        }
+        nodes = null;
+        if (unlockForLockAcquiredOnInterruptedConnection) {
+            LOG.warn("Releasing locks because of zookeeper connection lost/suspended before acquisition lock on paths: {}, section: {}", getPaths(), section);
+        }
+        releaseNodes(held);
+        long holdMs = System.currentTimeMillis() - lockTakenTime;
+        for (DistributedMutex mutex : mutexes) {
+            LockEvents.released(null, mutex.getPath(), section, holdMs);
+        }
+        // if onLockAcquired returns false it means it has nothing to do with onLockReleased
+        if (!unlockForLockAcquiredOnInterruptedConnection) {
+            for (DistributedMutex mutex : mutexes) {
+                client.onLockReleased(mutex.getPath());
+            }
+        }
+    }
+
+    private void releaseNodes(String[] held) {
+        for (int i = 0; i < held.length; i++) {
+            mutexes.get(i).releaseInBackground(held[i]);
+        }
+    }
+}
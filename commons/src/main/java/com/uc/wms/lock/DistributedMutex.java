@@ -0,0 +1,468 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.uc.wms.lock.exception.DeadlockException;
+import com.uc.wms.lock.exception.LockingException;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.imps.CuratorFrameworkState;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mutex speaking the same znode protocol as Curator's {@code InterProcessMutex}: ephemeral sequential
+ * {@code lock-} children under the lock path, the lowest sequence owns the lock and every waiter watches its
+ * predecessor. Unlike {@code InterProcessMutex} ownership is carried by the returned node path instead of the
+ * acquiring thread, so a held lock can be released, or handed over, from any thread. Both implementations exclude
+ * each other on the same path.
+ * <p>
+ * With the {@code InterProcessReadWriteLock} node names it speaks that protocol too: the write side is exclusive
+ * under {@value #WRITE_LOCK_NAME} nodes, the shared read side only waits for {@value #WRITE_LOCK_NAME} nodes ahead of
+ * its {@value #READ_LOCK_NAME} node.
+ * <p>
+ * Given a {@link LockMode}, nodes are named after their mode and a node only waits for the last node ahead of it whose
+ * mode is incompatible with its own, nodes of other protocols counting as {@code X}.
+ */
+class DistributedMutex {
+
+    private static final Logger             LOG             = LoggerFactory.getLogger(DistributedMutex.class);
+
+    static final String                     LOCK_NAME       = "lock-";
+
+    static final String                     READ_LOCK_NAME  = "__READ__";
+
+    static final String                     WRITE_LOCK_NAME = "__WRIT__";
+
+    private static final Comparator<String> SEQUENCE        = Comparator.comparing(DistributedMutex::getSequence);
+
+    private final LockingClient             client;
+
+    private final String                    path;
+
+    private final byte[]                    lockData;
+
+    private final String                    lockName;
+
+    /* read side of a read/write lock */
+    private final boolean                   shared;
+
+    /* multi-granularity mode, null for the other protocols */
+    private final LockMode                  mode;
+
+    private final Watcher                   watcher         = new Watcher() {
+                                                                @Override
+                                                                public void process(WatchedEvent event) {
+                                                                    notifyWaiters();
+                                                                }
+                                                            };
+
+    DistributedMutex(LockingClient client, String path, byte[] lockData) {
+        this(client, path, lockData, LOCK_NAME, false);
+    }
+
+    DistributedMutex(LockingClient client, String path, byte[] lockData, String lockName, boolean shared) {
+        this(client, path, lockData, lockName, shared, null);
+    }
+
+    DistributedMutex(LockingClient client, String path, byte[] lockData, LockMode mode) {
+        this(client, path, lockData, mode.getNodeName(), false, mode);
+    }
+
+    private DistributedMutex(LockingClient client, String path, byte[] lockData, String lockName, boolean shared, LockMode mode) {
+        this.client = client;
+        this.path = path;
+        this.lockData = lockData;
+        this.lockName = lockName;
+        this.shared = shared;
+        this.mode = mode;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * @param time negative to wait forever
+     * @param unit
+     * @return the owned lock node, or null if the lock could not be taken in time
+     */
+    String acquire(long time, TimeUnit unit) throws Exception {
+        long startNanos = System.nanoTime();
+        String node = createNode();
+        boolean owned = false;
+        try {
+            owned = awaitOwnership(node, startNanos, time < 0 ? -1 : unit.toNanos(time));
+        } finally {
+            if (!owned) {
+                releaseQuietly(node);
+            }
+        }
+        return owned ? node : null;
+    }
+
+    /**
+     * Acquisition driven by zookeeper callbacks and watches, no thread is parked while waiting. The future completes
+     * with the owned lock node on a curator/zookeeper event thread, or exceptionally with a {@link TimeoutException}.
+     * The lock node is deleted when the future fails or is cancelled before ownership.
+     *
+     * @param time negative to wait forever
+     * @param unit
+     * @return
+     */
+    CompletableFuture<String> acquireAsync(long time, TimeUnit unit) {
+        AsyncAcquisition acquisition = new AsyncAcquisition();
+        acquisition.start(time < 0 ? -1 : unit.toNanos(time));
+        return acquisition.future;
+    }
+
+    String createNode() throws Exception {
+        String nodePath = ZKPaths.makePath(path, lockName);
+        CuratorFramework curator = client.getLockingClient();
+        byte[] data = getNodeData();
+        if (data == null) {
+            return curator.create().creatingParentContainersIfNeeded().withProtection().withMode(CreateMode.EPHEMERAL_SEQUENTIAL).forPath(nodePath);
+        }
+        return curator.create().creatingParentContainersIfNeeded().withProtection().withMode(CreateMode.EPHEMERAL_SEQUENTIAL).forPath(nodePath, data);
+    }
+
+    /**
+     * Pipelined variant of {@link #createNode()}, lets callers put several lock nodes in flight at once.
+     */
+    CompletableFuture<String> createNodeAsync() {
+        return createNodeAsync(getNodeData());
+    }
+
+    /**
+     * Under deadlock detection, rewrites the owner identity of a held node to the current thread, for a node handed over
+     * between local threads.
+     *
+     * @param node
+     */
+    void claim(String node) throws Exception {
+        DeadlockDetector detector = client.getDeadlockDetector();
+        if (detector != null && !shared) {
+            client.getLockingClient().setData().forPath(node, detector.getLockNodeBytes(lockData));
+        }
+    }
+
+    private CompletableFuture<String> createNodeAsync(byte[] data) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        BackgroundCallback callback = (curator, event) -> {
+            if (event.getResultCode() == KeeperException.Code.OK.intValue()) {
+                future.complete(event.getName());
+            } else {
+                future.completeExceptionally(KeeperException.create(KeeperException.Code.get(event.getResultCode()), event.getPath()));
+            }
+        };
+        String nodePath = ZKPaths.makePath(path, lockName);
+        CuratorFramework curator = client.getLockingClient();
+        try {
+            if (data == null) {
+                curator.create().creatingParentContainersIfNeeded().withProtection().withMode(CreateMode.EPHEMERAL_SEQUENTIAL).inBackground(callback).forPath(nodePath);
+            } else {
+                curator.create().creatingParentContainersIfNeeded().withProtection().withMode(CreateMode.EPHEMERAL_SEQUENTIAL).inBackground(callback).forPath(nodePath, data);
+            }
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    CompletableFuture<List<String>> getSortedChildrenAsync() {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        BackgroundCallback callback = (curator, event) -> {
+            if (event.getResultCode() == KeeperException.Code.OK.intValue()) {
+                List<String> children = new ArrayList<>(event.getChildren());
+                children.sort(SEQUENCE);
+                future.complete(children);
+            } else if (event.getResultCode() == KeeperException.Code.NONODE.intValue()) {
+                future.complete(Collections.<String> emptyList());
+            } else {
+                future.completeExceptionally(KeeperException.create(KeeperException.Code.get(event.getResultCode()), event.getPath()));
+            }
+        };
+        try {
+            client.getLockingClient().getChildren().inBackground(callback).forPath(path);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Blocks until {@code node} owns the lock, i.e. is the lowest sequence under the lock path or, for the shared side,
+     * has no write node ahead, or, given a mode, no incompatible node ahead. The wait is known to the deadlock detector,
+     * if enabled.
+     *
+     * @param waitNanos negative to wait forever
+     * @return false on timeout
+     * @throws DeadlockException if the wait was aborted to break a deadlock
+     */
+    boolean awaitOwnership(String node, long startNanos, long waitNanos) throws Exception {
+        DeadlockDetector detector = client.getDeadlockDetector();
+        DeadlockDetector.Wait wait = detector == null ? null : detector.beginWait(path);
+        boolean owned = false;
+        try {
+            owned = doAwaitOwnership(node, startNanos, waitNanos);
+        } finally {
+            if (wait != null) {
+                List<String> cycle = detector.endWait(wait);
+                // a wait that got its lock anyway is not failed, the cycle is broken either way
+                if (cycle != null && !owned) {
+                    throw new DeadlockException("Aborted wait for lock on path: " + path + " to break deadlock: " + cycle, cycle);
+                }
+            }
+        }
+        return owned;
+    }
+
+    private boolean doAwaitOwnership(String node, long startNanos, long waitNanos) throws Exception {
+        CuratorFramework curator = client.getLockingClient();
+        String nodeName = ZKPaths.getNodeFromPath(node);
+        while (curator.getState() == CuratorFrameworkState.STARTED) {
+            List<String> children = getSortedChildren();
+            int ourIndex = children.indexOf(nodeName);
+            if (ourIndex < 0) {
+                throw new KeeperException.NoNodeException("Lock node not found: " + node);
+            }
+            String blocker = getBlocker(children, ourIndex);
+            if (blocker == null) {
+                return true;
+            }
+            String previous = ZKPaths.makePath(path, blocker);
+            synchronized (this) {
+                try {
+                    // set the watch under the monitor so the notification can not slip in before we wait
+                    curator.getData().usingWatcher(watcher).forPath(previous);
+                    if (waitNanos < 0) {
+                        wait();
+                    } else {
+                        long remaining = waitNanos - (System.nanoTime() - startNanos);
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (KeeperException.NoNodeException e) {
+                    // predecessor went away in the meantime, look again
+                }
+            }
+        }
+        return false;
+    }
+
+    boolean isOwner(String node) throws Exception {
+        List<String> children = getSortedChildren();
+        int ourIndex = children.indexOf(ZKPaths.getNodeFromPath(node));
+        return ourIndex >= 0 && getBlocker(children, ourIndex) == null;
+    }
+
+    static boolean isOwner(List<String> sortedChildren, String node) {
+        return !sortedChildren.isEmpty() && sortedChildren.get(0).equals(ZKPaths.getNodeFromPath(node));
+    }
+
+    void release(String node) {
+        if (node == null) {
+            return;
+        }
+        try {
+            client.getLockingClient().delete().guaranteed().forPath(node);
+        } catch (KeeperException.NoNodeException e) {
+            LOG.warn("Lock node {} was already gone on release", node);
+        } catch (Exception e) {
+            throw new LockingException(e);
+        }
+    }
+
+    /**
+     * Fire and forget release, the delete is guaranteed by curator even across connection problems.
+     */
+    void releaseInBackground(String node) {
+        if (node == null) {
+            return;
+        }
+        try {
+            client.getLockingClient().delete().guaranteed().inBackground().forPath(node);
+        } catch (Exception e) {
+            LOG.error("Failed to delete lock node: " + node, e);
+        }
+    }
+
+    void releaseQuietly(String node) {
+        try {
+            release(node);
+        } catch (Exception e) {
+            LOG.error("Failed to delete lock node: " + node, e);
+        }
+    }
+
+    List<String> getSortedChildren() throws Exception {
+        List<String> children;
+        try {
+            children = new ArrayList<>(client.getLockingClient().getChildren().forPath(path));
+        } catch (KeeperException.NoNodeException e) {
+            return Collections.emptyList();
+        }
+        children.sort(SEQUENCE);
+        return children;
+    }
+
+    List<String> getParticipantNodes() throws Exception {
+        List<String> children = getSortedChildren();
+        List<String> nodes = new ArrayList<>(children.size());
+        for (String child : children) {
+            nodes.add(ZKPaths.makePath(path, child));
+        }
+        return nodes;
+    }
+
+    private final class AsyncAcquisition implements Watcher {
+
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        private volatile String                 node;
+
+        private volatile ScheduledFuture<?>     timeout;
+
+        void start(long waitNanos) {
+            if (waitNanos >= 0) {
+                timeout = client.getScheduler().schedule(
+                        () -> future.completeExceptionally(new TimeoutException("Unable to acquire lock on path: " + path + " in " + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms")),
+                        waitNanos, TimeUnit.NANOSECONDS);
+            }
+            future.whenComplete((owned, t) -> {
+                ScheduledFuture<?> task = timeout;
+                if (task != null) {
+                    task.cancel(false);
+                }
+                if (t != null) {
+                    // either this or the create callback sees the node, both releasing it is harmless
+                    releaseInBackground(node);
+                }
+            });
+            // a handle is not owned by a thread, its node carries no owner identity
+            createNodeAsync(lockData).whenComplete((created, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                    return;
+                }
+                node = created;
+                if (future.isDone()) {
+                    releaseInBackground(created);
+                } else {
+                    checkOwnership();
+                }
+            });
+        }
+
+        @Override
+        public void process(WatchedEvent event) {
+            checkOwnership();
+        }
+
+        private void checkOwnership() {
+            if (future.isDone()) {
+                return;
+            }
+            getSortedChildrenAsync().whenComplete((children, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                    return;
+                }
+                int ourIndex = children.indexOf(ZKPaths.getNodeFromPath(node));
+                if (ourIndex < 0) {
+                    future.completeExceptionally(new KeeperException.NoNodeException("Lock node not found: " + node));
+                } else {
+                    String blocker = getBlocker(children, ourIndex);
+                    if (blocker == null) {
+                        future.complete(node);
+                    } else {
+                        watch(ZKPaths.makePath(path, blocker));
+                    }
+                }
+            });
+        }
+
+        private void watch(String previous) {
+            try {
+                client.getLockingClient().getData().usingWatcher(this).inBackground((curator, event) -> {
+                    if (event.getResultCode() == KeeperException.Code.NONODE.intValue()) {
+                        // predecessor went away in the meantime, look again
+                        checkOwnership();
+                    } else if (event.getResultCode() != KeeperException.Code.OK.intValue()) {
+                        future.completeExceptionally(KeeperException.create(KeeperException.Code.get(event.getResultCode()), event.getPath()));
+                    }
+                }).forPath(previous);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /*
+     * data of a node created by the current thread, under deadlock detection with its owner identity ahead; shared
+     * nodes are held by a changing set of threads and carry none
+     */
+    private byte[] getNodeData() {
+        DeadlockDetector detector = client.getDeadlockDetector();
+        return detector == null || shared ? lockData : detector.getLockNodeBytes(lockData);
+    }
+
+    private synchronized void notifyWaiters() {
+        notifyAll();
+    }
+
+    /*
+     * the node to wait for, null if ours owns the lock; the shared side only waits for the last writer ahead of it, a
+     * multi-granularity node for the last incompatible one
+     */
+    private String getBlocker(List<String> sortedChildren, int ourIndex) {
+        if (mode != null) {
+            for (int i = ourIndex - 1; i >= 0; i--) {
+                LockMode other = LockMode.of(sortedChildren.get(i));
+                if (other == null || !mode.isCompatible(other)) {
+                    return sortedChildren.get(i);
+                }
+            }
+            return null;
+        }
+        if (!shared) {
+            return ourIndex == 0 ? null : sortedChildren.get(ourIndex - 1);
+        }
+        for (int i = ourIndex - 1; i >= 0; i--) {
+            if (sortedChildren.get(i).contains(WRITE_LOCK_NAME)) {
+                return sortedChildren.get(i);
+            }
+        }
+        return null;
+    }
+
+    /* the zookeeper sequence suffix, whatever the lock name and protection prefix */
+    static String getSequence(String nodeName) {
+        int index = nodeName.length();
+        while (index > 0 && Character.isDigit(nodeName.charAt(index - 1))) {
+            index--;
+        }
+        return nodeName.substring(index);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.uc.wms.lock.exception.LockingException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.curator.framework.recipes.locks.InterProcessSemaphoreV2;
+import org.apache.curator.framework.recipes.locks.Lease;
+
+/**
+ * {@link java.util.concurrent.locks.Lock} over one lease of a Curator {@link InterProcessSemaphoreV2}: up to
+ * {@code permits} holders at once across the cluster, with the timeout and connection interruption semantics of
+ * {@link DistributedLock}. Every node must use the same permit count for a path, Curator trusts the caller's count.
+ * <p>
+ * Not reentrant, a thread locking twice takes two leases. Semaphores live at {@value LockPaths#SEMAPHORE}{@code <key>}
+ * next to the key's lock path, as their lease and lock children would break the mutex protocol on the key itself.
+ */
+class DistributedSemaphore extends NodeLock {
+
+    private final InterProcessSemaphoreV2 semaphore;
+
+    private final String                  path;
+
+    private Lease                         lease;
+
+    DistributedSemaphore(LockingClient client, String path, int permits, String section, String lockData) {
+        super(client, path, section);
+        this.path = path;
+        this.semaphore = new InterProcessSemaphoreV2(client.getLockingClient(), path, permits);
+        if (StringUtils.isNotBlank(lockData)) {
+            semaphore.setNodeData(lockData.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    boolean doAcquire(long time, TimeUnit unit) throws Exception {
+        if (lease != null) {
+            throw new IllegalMonitorStateException("Semaphore on path: " + path + " is already held by this instance");
+        }
+        lease = time < 0 ? semaphore.acquire() : semaphore.acquire(time, unit);
+        return lease != null;
+    }
+
+    @Override
+    void doRelease() {
+        Lease held = lease;
+        if (held == null) {
+            throw new IllegalMonitorStateException("Semaphore on path: " + path + " is not held by this instance");
+        }
+        lease = null;
+        try {
+            held.close();
+        } catch (Exception e) {
+            throw new LockingException(e);
+        }
+    }
+}
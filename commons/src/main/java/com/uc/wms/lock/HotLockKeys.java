@@ -0,0 +1,274 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.uc.wms.aspect.locking.Namespace;
+
+/**
+ * Most contended lock keys per {@link Namespace}, always on: every acquisition through the locking aspect adds
+ * {@code 1 + wait ms} to its key in a count-min sketch of {@value #DEPTH} rows of {@value #WIDTH_PROPERTY} (default
+ * {@value #DEFAULT_WIDTH}) counters, each row hashing the key's chars with its own seed, and keys whose estimate beats
+ * the coldest of the {@value #K_PROPERTY} (default {@value #DEFAULT_K}) tracked ones take its place. Counters are
+ * halved every minute so that the ranking follows the current load.
+ * <p>
+ * Recording only does atomic adds and compare-and-sets on preallocated arrays, no locks and no allocation unless a key
+ * enters the top keys. Estimates can only be too high, by at most {@code e / width} of the namespace's total weight
+ * with high probability. The weights of the top keys are also published as numeric
+ * {@code wms.lock.<NAMESPACE>.hotKeys.rank<N>} gauges, rank 1 being the hottest, the keys themselves are only available
+ * through {@link #getHotKeys}.
+ */
+public final class HotLockKeys {
+
+    public static final String                           WIDTH_PROPERTY = "wms.lock.hotKeys.width";
+
+    public static final String                           K_PROPERTY     = "wms.lock.hotKeys.k";
+
+    public static final int                              DEFAULT_WIDTH  = 1024;
+
+    public static final int                              DEFAULT_K      = 16;
+
+    static final int                                     DEPTH          = 4;
+
+    private static final int                             WIDTH          = Integer.highestOneBit(Math.max(16, Integer.getInteger(WIDTH_PROPERTY, DEFAULT_WIDTH)));
+
+    private static final int                             K              = Math.max(1, Integer.getInteger(K_PROPERTY, DEFAULT_K));
+
+    private static final long                            DECAY_MS       = TimeUnit.MINUTES.toMillis(1);
+
+    private static final AtomicReferenceArray<KeySketch> SKETCHES       = new AtomicReferenceArray<>(Namespace.values().length);
+
+    private static final long[]                          SEEDS          = { 0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L };
+
+    private HotLockKeys() {
+    }
+
+    /**
+     * @param namespace
+     * @param key
+     * @param waitMs time waited for the lock
+     */
+    public static void record(Namespace namespace, String key, long waitMs) {
+        getSketch(namespace).add(key, 1 + Math.max(0, waitMs));
+    }
+
+    /**
+     * @param namespace
+     * @return tracked keys of the namespace, hottest first
+     */
+    public static List<HotKey> getHotKeys(Namespace namespace) {
+        KeySketch sketch = SKETCHES.get(namespace.ordinal());
+        return sketch == null ? Collections.<HotKey> emptyList() : sketch.getHotKeys();
+    }
+
+    /**
+     * @param namespace
+     * @param key
+     * @return estimated weight of the key, over-estimated at worst
+     */
+    public static long estimate(Namespace namespace, String key) {
+        KeySketch sketch = SKETCHES.get(namespace.ordinal());
+        return sketch == null ? 0 : sketch.estimate(key);
+    }
+
+    public static void reset() {
+        for (int i = 0; i < SKETCHES.length(); i++) {
+            SKETCHES.set(i, null);
+        }
+    }
+
+    private static KeySketch getSketch(Namespace namespace) {
+        KeySketch sketch = SKETCHES.get(namespace.ordinal());
+        if (sketch == null) {
+            KeySketch created = new KeySketch();
+            if (SKETCHES.compareAndSet(namespace.ordinal(), null, created)) {
+                registerGauge(namespace);
+                sketch = created;
+            } else {
+                sketch = SKETCHES.get(namespace.ordinal());
+            }
+        }
+        return sketch;
+    }
+
+    private static void registerGauge(final Namespace namespace) {
+        MetricRegistry registry = LockMetrics.getRegistry();
+        for (int i = 0; i < K; i++) {
+            final int rank = i;
+            String name = MetricRegistry.name("wms.lock", namespace.name(), "hotKeys", "rank" + (rank + 1));
+            registry.remove(name);
+            registry.register(name, new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    List<HotKey> hotKeys = getHotKeys(namespace);
+                    return rank < hotKeys.size() ? hotKeys.get(rank).weight : 0L;
+                }
+            });
+        }
+    }
+
+    /* seeded per row so that keys colliding in one row rarely collide in another, unlike rows derived from one hash */
+    static long hash(String key, int row) {
+        long h = SEEDS[row];
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+            h ^= h >>> 29;
+        }
+        return mix(h ^ key.length());
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    public static final class HotKey {
+        private final String key;
+        private final long   weight;
+
+        HotKey(String key, long weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /* wait ms plus acquisitions, decayed */
+        public long getWeight() {
+            return weight;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + weight;
+        }
+    }
+
+    private static final class KeySketch {
+        private final AtomicLongArray              counters  = new AtomicLongArray(DEPTH * WIDTH);
+
+        /* unordered, the coldest one is replaced */
+        private final AtomicReferenceArray<HotKey> top       = new AtomicReferenceArray<>(K);
+
+        private final AtomicLong                   nextDecay = new AtomicLong(System.currentTimeMillis() + DECAY_MS);
+
+        /* weight a key needs to enter the top keys, stale but only ever too low */
+        private volatile long                      threshold;
+
+        void add(String key, long weight) {
+            decayIfDue();
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                estimate = Math.min(estimate, counters.addAndGet(index(key, row), weight));
+            }
+            if (estimate > threshold) {
+                offer(key, estimate);
+            }
+        }
+
+        long estimate(String key) {
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                estimate = Math.min(estimate, counters.get(index(key, row)));
+            }
+            return estimate;
+        }
+
+        List<HotKey> getHotKeys() {
+            List<HotKey> hotKeys = new ArrayList<>(K);
+            for (int i = 0; i < K; i++) {
+                HotKey hotKey = top.get(i);
+                if (hotKey != null) {
+                    hotKeys.add(hotKey);
+                }
+            }
+            hotKeys.sort((a, b) -> Long.compare(b.weight, a.weight));
+            // racing first entries of a key may have taken two slots
+            Set<String> seen = new HashSet<>();
+            hotKeys.removeIf(hotKey -> !seen.add(hotKey.key));
+            return hotKeys;
+        }
+
+        private void offer(String key, long estimate) {
+            while (true) {
+                int coldest = -1;
+                long coldestWeight = Long.MAX_VALUE;
+                for (int i = 0; i < K; i++) {
+                    HotKey current = top.get(i);
+                    if (current == null) {
+                        if (coldestWeight > 0) {
+                            coldest = i;
+                            coldestWeight = 0;
+                        }
+                    } else if (current.key.equals(key)) {
+                        if (current.weight >= estimate || top.compareAndSet(i, current, new HotKey(key, estimate))) {
+                            return;
+                        }
+                        // raced with another update of the key, look again
+                        coldest = -2;
+                        break;
+                    } else if (current.weight < coldestWeight) {
+                        coldest = i;
+                        coldestWeight = current.weight;
+                    }
+                }
+                if (coldest == -2) {
+                    continue;
+                }
+                if (estimate <= coldestWeight) {
+                    threshold = coldestWeight;
+                    return;
+                }
+                HotKey current = top.get(coldest);
+                if ((current == null ? 0 : current.weight) == coldestWeight && top.compareAndSet(coldest, current, new HotKey(key, estimate))) {
+                    threshold = coldestWeight;
+                    return;
+                }
+            }
+        }
+
+        /* halves every counter and tracked weight, done by whichever recorder finds it due */
+        private void decayIfDue() {
+            long due = nextDecay.get();
+            long now = System.currentTimeMillis();
+            if (now < due || !nextDecay.compareAndSet(due, now + DECAY_MS)) {
+                return;
+            }
+            for (int i = 0; i < counters.length(); i++) {
+                counters.updateAndGet(i, count -> count >> 1);
+            }
+            for (int i = 0; i < K; i++) {
+                HotKey current = top.get(i);
+                if (current != null) {
+                    top.compareAndSet(i, current, new HotKey(current.key, current.weight >> 1));
+                }
+            }
+            threshold = 0;
+        }
+
+        private static int index(String key, int row) {
+            return row * WIDTH + (int) (hash(key, row) & (WIDTH - 1));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Lock on one granule of the multi-granularity hierarchy in one {@link LockMode}. Not reentrant, the hierarchy is
+ * assembled by {@link AbstractLockingService#getHierarchicalLock}.
+ */
+class IntentionLock extends NodeLock {
+
+    private final DistributedMutex mutex;
+
+    private String                 node;
+
+    IntentionLock(LockingClient client, String path, LockMode mode, String lockData) {
+        super(client, path, mode.name());
+        this.mutex = new DistributedMutex(client, path, StringUtils.isBlank(lockData) ? null : lockData.getBytes(StandardCharsets.UTF_8), mode);
+    }
+
+    @Override
+    boolean doAcquire(long time, TimeUnit unit) throws Exception {
+        if (node != null) {
+            throw new IllegalMonitorStateException("Intention lock on path: " + mutex.getPath() + " is already held by this instance");
+        }
+        node = mutex.acquire(time, unit);
+        return node != null;
+    }
+
+    @Override
+    void doRelease() {
+        String held = node;
+        node = null;
+        mutex.release(held);
+    }
+}
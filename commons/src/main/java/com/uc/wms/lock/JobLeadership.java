@@ -0,0 +1,254 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.uc.wms.aspect.locking.Namespace;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.leader.LeaderLatch;
+import org.apache.curator.framework.recipes.nodes.PersistentNode;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.CreateMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long lived ownership of scheduled work, e.g. of the JOB, CACHE_RELOAD and ACKNOWLEDGE_PENDING_SNAPSHOTS
+ * namespaces, instead of every node racing for a {@link DistributedLock} on every tick. Nodes asking about a job key
+ * become ephemeral candidates for it under {@code /LEADER/<NAMESPACE>/~candidates/<key>}, and each key belongs to the
+ * candidate ranked first for it by rendezvous hashing, so keys spread over the nodes running them and only move when
+ * candidates come or go; a node that never asks about a key is never ranked for it. The ranked candidate takes a
+ * Curator {@link LeaderLatch} on {@code /LEADER/<NAMESPACE>/<key>}, which stays the arbiter while candidate views
+ * disagree: a key has at most one owner at any time.
+ * <p>
+ * Ownership persists between runs, so a tick only checks a local flag, see {@link #isOwner}. When the owner's node goes
+ * away its candidate and latch nodes expire with its session and the next ranked candidate takes over. A suspended
+ * connection gives up ownership right away.
+ */
+public class JobLeadership {
+
+    private static final Logger                   LOG    = LoggerFactory.getLogger(JobLeadership.class);
+
+    public static final String                    ROOT   = "/LEADER";
+
+    private final LockingClient                   client;
+
+    private final String                          memberId;
+
+    private final ConcurrentMap<Namespace, Group> groups = new ConcurrentHashMap<>();
+
+    private volatile boolean                      closed;
+
+    public JobLeadership(LockingClient client) {
+        this.client = client;
+        // pid@host plus a suffix, a restarted process must not take over the member node of its previous session
+        this.memberId = LockPaths.sanitizeKey(ManagementFactory.getRuntimeMXBean().getName()) + '-' + Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+
+    /**
+     * Becomes a candidate for the key on first use, ownership of a key asked about for the first time
+     * is only known a few round trips later. Never blocks.
+     *
+     * @param namespace
+     * @param key job key, sanitized as per {@link LockPaths#sanitizeKey}
+     * @return true if this node owns the key
+     */
+    public boolean isOwner(Namespace namespace, String key) {
+        if (closed) {
+            return false;
+        }
+        Group group = groups.get(namespace);
+        if (group == null) {
+            Group created = new Group(namespace);
+            group = groups.putIfAbsent(namespace, created);
+            if (group == null) {
+                group = created;
+                group.start();
+            }
+        }
+        return group.isOwner(LockPaths.sanitizeKey(key));
+    }
+
+    /**
+     * @param namespace
+     * @param key
+     * @param job
+     * @return true if the job ran, i.e. this node owns the key
+     */
+    public boolean runIfOwner(Namespace namespace, String key, Runnable job) {
+        if (!isOwner(namespace, key)) {
+            return false;
+        }
+        job.run();
+        return true;
+    }
+
+    /**
+     * @param namespace
+     * @return keys of the namespace this node currently owns, among the ones it asked about
+     */
+    public List<String> getOwnedKeys(Namespace namespace) {
+        Group group = groups.get(namespace);
+        return group == null ? new ArrayList<>() : group.getOwnedKeys();
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public void close() {
+        closed = true;
+        for (Group group : groups.values()) {
+            group.close();
+        }
+        groups.clear();
+    }
+
+    /* rendezvous hashing, the member with the highest score of the key */
+    static String rank(Iterable<String> members, String key) {
+        String owner = null;
+        long ownerScore = 0;
+        for (String member : members) {
+            String candidate = member + LockPaths.SEPARATOR + key;
+            long score = ShardedLockingClient.hash(candidate, 0, candidate.length());
+            if (owner == null || Long.compareUnsigned(score, ownerScore) > 0) {
+                owner = member;
+                ownerScore = score;
+            }
+        }
+        return owner;
+    }
+
+    private final class Group {
+        private final Namespace                   namespace;
+        private final String                      path;
+        private final String                      candidatesPath;
+        /* candidates of every key of the namespace */
+        private final TreeCache                   candidates;
+        /* own candidate node of every tracked key */
+        private final Map<String, PersistentNode> candidacies = new ConcurrentHashMap<>();
+        /* latch of every tracked key, null while another candidate is ranked first */
+        private final Map<String, LeaderLatch>    latches     = new ConcurrentHashMap<>();
+        private final TreeSet<String>             keys        = new TreeSet<>();
+        private volatile boolean                  initialized;
+
+        Group(Namespace namespace) {
+            this.namespace = namespace;
+            this.path = ROOT + LockPaths.SEPARATOR + namespace.name();
+            this.candidatesPath = ZKPaths.makePath(path, LockPaths.CANDIDATES);
+            this.candidates = TreeCache.newBuilder(client.getLockingClient(), candidatesPath).setCacheData(false).setMaxDepth(2).build();
+        }
+
+        void start() {
+            candidates.getListenable().addListener((curator, event) -> {
+                if (event.getType() == TreeCacheEvent.Type.INITIALIZED) {
+                    initialized = true;
+                }
+                rebalance();
+            });
+            try {
+                candidates.start();
+            } catch (Exception e) {
+                LOG.error("Error while joining job leadership of namespace: " + namespace, e);
+            }
+        }
+
+        boolean isOwner(String key) {
+            LeaderLatch latch = latches.get(key);
+            if (latch != null) {
+                return latch.hasLeadership();
+            }
+            boolean added;
+            synchronized (this) {
+                added = !closed && keys.add(key);
+                if (added) {
+                    PersistentNode candidacy = new PersistentNode(client.getLockingClient(), CreateMode.EPHEMERAL, false, ZKPaths.makePath(candidatesPath, key, memberId), new byte[0]);
+                    candidacies.put(key, candidacy);
+                    candidacy.start();
+                }
+            }
+            if (added) {
+                rebalance();
+                latch = latches.get(key);
+                return latch != null && latch.hasLeadership();
+            }
+            return false;
+        }
+
+        List<String> getOwnedKeys() {
+            List<String> owned = new ArrayList<>();
+            for (Map.Entry<String, LeaderLatch> entry : latches.entrySet()) {
+                if (entry.getValue().hasLeadership()) {
+                    owned.add(entry.getKey());
+                }
+            }
+            return owned;
+        }
+
+        /* joins the latch of every key ranked to this member among the key's candidates, leaves the others */
+        synchronized void rebalance() {
+            if (!initialized || closed) {
+                return;
+            }
+            for (String key : keys) {
+                Map<String, ChildData> keyCandidates = candidates.getCurrentChildren(ZKPaths.makePath(candidatesPath, key));
+                // until its own candidate node shows up the member is not ranked
+                boolean ranked = keyCandidates != null && memberId.equals(rank(keyCandidates.keySet(), key));
+                LeaderLatch latch = latches.get(key);
+                if (ranked && latch == null) {
+                    latch = new LeaderLatch(client.getLockingClient(), ZKPaths.makePath(path, key), memberId);
+                    try {
+                        latch.start();
+                        latches.put(key, latch);
+                        LOG.info("Taking ownership of job: {} of namespace: {}", key, namespace);
+                    } catch (Exception e) {
+                        LOG.error("Error while taking ownership of job: " + key + " of namespace: " + namespace, e);
+                    }
+                } else if (!ranked && latch != null) {
+                    latches.remove(key);
+                    closeQuietly(latch);
+                    LOG.info("Handing over ownership of job: {} of namespace: {}", key, namespace);
+                }
+            }
+        }
+
+        synchronized void close() {
+            for (LeaderLatch latch : latches.values()) {
+                closeQuietly(latch);
+            }
+            latches.clear();
+            candidates.close();
+            for (PersistentNode candidacy : candidacies.values()) {
+                try {
+                    candidacy.close();
+                } catch (Exception e) {
+                    LOG.error("Error while leaving job leadership of namespace: " + namespace, e);
+                }
+            }
+            candidacies.clear();
+        }
+
+        private void closeQuietly(LeaderLatch latch) {
+            try {
+                latch.close(LeaderLatch.CloseMode.SILENT);
+            } catch (Exception e) {
+                LOG.error("Error while closing leader latch: " + latch.getId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Estimates how long a lock would be waited for as the number of lock nodes ahead of it, read from the
+ * {@link LockOccupancyCache}, times the average hold time of locks of its namespace. The average is an exponentially
+ * weighted moving average fed by releases; concurrent releases may overwrite each other's update, which only costs
+ * a sample. Nothing is estimated for a namespace until a lock of it was released.
+ */
+class LockAdmission {
+
+    /* weight of the latest hold time */
+    private static final double                   ALPHA     = 0.2;
+
+    private final LockingClient                   client;
+
+    private final ConcurrentMap<String, HoldTime> holdTimes = new ConcurrentHashMap<>();
+
+    LockAdmission(LockingClient client) {
+        this.client = client;
+    }
+
+    void onReleased(String path, long holdMs) {
+        HoldTime holdTime = holdTimes.computeIfAbsent(LockPaths.getNamespacePath(path), namespacePath -> new HoldTime());
+        holdTime.update(holdMs);
+    }
+
+    /**
+     * @param path
+     * @return estimated wait in ms, 0 for a free lock and -1 when unknown
+     * @throws Exception
+     */
+    long estimateWaitMillis(String path) throws Exception {
+        HoldTime holdTime = holdTimes.get(LockPaths.getNamespacePath(path));
+        double averageMs = holdTime == null ? -1 : holdTime.averageMs;
+        if (averageMs < 0) {
+            return -1;
+        }
+        int participants = client.getOccupancyCache().getParticipantCount(path);
+        return (long) (participants * averageMs);
+    }
+
+    private static final class HoldTime {
+        private volatile double averageMs = -1;
+
+        void update(long holdMs) {
+            double current = averageMs;
+            averageMs = current < 0 ? holdMs : current + ALPHA * (holdMs - current);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+/**
+ * Lock escalation of a namespace: keys hash into {@code buckets} bucket locks below the tenant/facility scope, one
+ * bucket being a lock on the whole scope. A key lock also takes its bucket shared, through one read lease per JVM (see
+ * {@link SharedReadWriteLock}), and a bulk lock over more than {@code threshold} keys takes the buckets of its keys
+ * exclusively instead of the keys, see {@link AbstractLockingService#getBulkLock}.
+ * <p>
+ * A multi lock takes all its buckets, in path order, before any of its keys, and the locking aspect always locks the
+ * keys of a {@code @Locks} method touching an escalated namespace together, whatever its {@code together}, unless it
+ * takes semaphores. Keys locked one at a time otherwise, e.g. by nested methods or successive {@code getLock} calls,
+ * take their buckets one at a time too: a thread holding a key in one bucket and waiting for another bucket deadlocks
+ * with a bulk lock holding the latter and waiting for the former, just as keys locked in different orders deadlock
+ * each other. Lock such keys together.
+ * <p>
+ * Changing the bucket count of a namespace needs every node to be restarted with the new count at once.
+ */
+public class LockEscalation {
+
+    private final int threshold;
+
+    private final int buckets;
+
+    /**
+     * @param threshold number of keys above which bulk locks take buckets
+     * @param buckets number of buckets per scope, 1 for a single scope wide lock
+     */
+    public LockEscalation(int threshold, int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("buckets should be at least 1, found: " + buckets);
+        }
+        this.threshold = threshold;
+        this.buckets = buckets;
+    }
+
+    public boolean isEscalated(int keyCount) {
+        return keyCount > threshold;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * @param path lock path of the key
+     * @return path of the bucket lock guarding the key, next to the key
+     */
+    public String getBucketPath(String path) {
+        int keyStart = path.lastIndexOf(LockPaths.SEPARATOR) + 1;
+        int hash = path.substring(keyStart).hashCode() * 0x9E3779B9;
+        return path.substring(0, keyStart) + LockPaths.BUCKET + Math.floorMod(hash ^ (hash >>> 16), buckets);
+    }
+
+    @Override
+    public String toString() {
+        return "LockEscalation [threshold: " + threshold + ", buckets: " + buckets + "]";
+    }
+}
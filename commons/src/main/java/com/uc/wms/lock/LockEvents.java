@@ -0,0 +1,223 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+
+/**
+ * Lock events, in place of per call logging: the last {@value #DEFAULT_SIZE} (see {@value #SIZE_PROPERTY}) are kept
+ * in memory and can be dumped on demand with {@link #dump()}, and every event is also emitted to JDK Flight Recorder
+ * as {@code com.uc.wms.lock.*} events when the JVM has it (JDK 11+, with a jar built on JDK 11+, see
+ * {@link LockFlightRecorder}). Disable the latter with the {@value #JFR_PROPERTY} system property.
+ * <p>
+ * {@code begin*} returns the flight recorder event to pass back on completion, or null when it is not recorded.
+ */
+public final class LockEvents {
+
+    public static final String                       SIZE_PROPERTY = "wms.lock.events.size";
+
+    public static final String                       JFR_PROPERTY  = "wms.lock.jfr.enabled";
+
+    public static final int                          DEFAULT_SIZE  = 1024;
+
+    private static final boolean                     JFR_AVAILABLE = isFlightRecorderAvailable();
+
+    private static final AtomicReferenceArray<Entry> RING          = new AtomicReferenceArray<>(getRingSize());
+
+    private static final int                         MASK          = RING.length() - 1;
+
+    private static final AtomicLong                  SEQUENCE      = new AtomicLong();
+
+    public enum Type {
+        ACQUIRED,
+        TIMED_OUT,
+        FAILED,
+        RELEASED,
+        CONNECTION_STATE_CHANGED
+    }
+
+    private LockEvents() {
+    }
+
+    public static Object beginAcquire() {
+        return JFR_AVAILABLE ? LockFlightRecorder.beginAcquire() : null;
+    }
+
+    public static void acquired(Object event, String path, String section, long waitMs) {
+        record(Type.ACQUIRED, path, section, waitMs, null);
+        if (event != null) {
+            LockFlightRecorder.commitAcquire(event, path, section, Type.ACQUIRED);
+        }
+    }
+
+    public static void timedOut(Object event, String path, String section, long waitMs) {
+        record(Type.TIMED_OUT, path, section, waitMs, null);
+        if (event != null) {
+            LockFlightRecorder.commitAcquire(event, path, section, Type.TIMED_OUT);
+        }
+    }
+
+    public static void failed(Object event, String path, String section, long waitMs, Throwable cause) {
+        record(Type.FAILED, path, section, waitMs, String.valueOf(cause));
+        if (event != null) {
+            LockFlightRecorder.commitAcquire(event, path, section, Type.FAILED);
+        }
+    }
+
+    public static Object beginRelease() {
+        return JFR_AVAILABLE ? LockFlightRecorder.beginRelease() : null;
+    }
+
+    public static void released(Object event, String path, String section, long holdMs) {
+        record(Type.RELEASED, path, section, holdMs, null);
+        if (event != null) {
+            LockFlightRecorder.commitRelease(event, path, section, holdMs);
+        }
+    }
+
+    /**
+     * Time an annotated method spent waiting for its locks, flight recorder only as the locks record themselves.
+     */
+    public static Object beginWait() {
+        return JFR_AVAILABLE ? LockFlightRecorder.beginWait() : null;
+    }
+
+    public static void waited(Object event, Namespace namespace, Level level, Object key, String method, boolean acquired) {
+        if (event != null) {
+            LockFlightRecorder.commitWait(event, namespace, level, key, method, acquired);
+        }
+    }
+
+    static void connectionStateChanged(String state, long connectionEpoch) {
+        record(Type.CONNECTION_STATE_CHANGED, null, null, connectionEpoch, state);
+        if (JFR_AVAILABLE) {
+            LockFlightRecorder.commitConnectionStateChange(state, connectionEpoch);
+        }
+    }
+
+    /**
+     * @return the recent events still in the ring, oldest first
+     */
+    public static List<Entry> getRecentEvents() {
+        long end = SEQUENCE.get();
+        long start = Math.max(0, end - RING.length());
+        List<Entry> events = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Entry entry = RING.get((int) (sequence & MASK));
+            // a slot may already be overwritten or not yet be written
+            if (entry != null && entry.sequence == sequence) {
+                events.add(entry);
+            }
+        }
+        return events;
+    }
+
+    public static String dump() {
+        StringBuilder dump = new StringBuilder();
+        for (Entry entry : getRecentEvents()) {
+            dump.append(entry).append('\n');
+        }
+        return dump.toString();
+    }
+
+    private static void record(Type type, String path, String section, long durationMs, String detail) {
+        long sequence = SEQUENCE.getAndIncrement();
+        RING.lazySet((int) (sequence & MASK), new Entry(sequence, type, path, section, durationMs, detail));
+    }
+
+    private static int getRingSize() {
+        int size = Math.max(1, Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty(JFR_PROPERTY, "true"))) {
+            return false;
+        }
+        try {
+            Class.forName("jdk.jfr.Event");
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+        // false unless the Java 11 layer of the jar was loaded
+        return LockFlightRecorder.isSupported();
+    }
+
+    public static final class Entry {
+        private final long   sequence;
+        private final long   timestamp;
+        private final Type   type;
+        private final String path;
+        private final String section;
+        private final String thread;
+        private final long   durationMs;
+        private final String detail;
+
+        Entry(long sequence, Type type, String path, String section, long durationMs, String detail) {
+            this.sequence = sequence;
+            this.timestamp = System.currentTimeMillis();
+            this.type = type;
+            this.path = path;
+            this.section = section;
+            this.thread = Thread.currentThread().getName();
+            this.durationMs = durationMs;
+            this.detail = detail;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getSection() {
+            return section;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * @return wait time for acquisitions, hold time for releases and the new connection epoch for connection state
+         *         changes
+         */
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        @Override
+        public String toString() {
+            return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(timestamp)) + " [" + thread + "] " + type + (path == null ? "" : " path: " + path)
+                    + (section == null ? "" : ", section: " + section) + (type == Type.CONNECTION_STATE_CHANGED ? ", connectionEpoch: " : ", in ") + durationMs
+                    + (type == Type.CONNECTION_STATE_CHANGED ? "" : " ms") + (detail == null ? "" : ", " + detail);
+        }
+    }
+}
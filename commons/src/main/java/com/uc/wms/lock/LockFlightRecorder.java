@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+
+/**
+ * No flight recorder events on Java 8. The events live in {@code src/main/java11}, built into the Java 11 layer of the
+ * multi-release jar by the {@code jfr} profile, which is active on JDK 11+ builds.
+ */
+final class LockFlightRecorder {
+
+    private LockFlightRecorder() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    static Object beginAcquire() {
+        return null;
+    }
+
+    static void commitAcquire(Object event, String path, String section, LockEvents.Type outcome) {
+    }
+
+    static Object beginRelease() {
+        return null;
+    }
+
+    static void commitRelease(Object event, String path, String section, long holdMs) {
+    }
+
+    static Object beginWait() {
+        return null;
+    }
+
+    static void commitWait(Object event, Namespace namespace, Level level, Object key, String method, boolean acquired) {
+    }
+
+    static void commitConnectionStateChange(String state, long connectionEpoch) {
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.uc.wms.lock.exception.ConnectionInterruptedException;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A held distributed lock owned by the handle rather than by a thread: it can be passed between executors and
+ * released from any thread. Handles are not tracked per thread by the locking helper, check
+ * {@link #isConnectionInterrupted()} before relying on the lock after a long pause.
+ */
+public class LockHandle implements AutoCloseable {
+
+    private final LockingClient    client;
+
+    private final DistributedMutex mutex;
+
+    private final String           node;
+
+    private final long             epoch;
+
+    private final long             lockTakenTime;
+
+    private final AtomicBoolean    released = new AtomicBoolean();
+
+    /* handle on the ensemble locked before this one, see acquireAsync(List, ...) */
+    private volatile LockHandle    enclosing;
+
+    private LockHandle(LockingClient client, DistributedMutex mutex, String node, long epoch) {
+        this.client = client;
+        this.mutex = mutex;
+        this.node = node;
+        this.epoch = epoch;
+        this.lockTakenTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Acquires the lock on {@code path} without parking the calling thread. The future completes on a zookeeper event
+     * thread, chain real work with the {@code *Async} stages. It fails with a {@link java.util.concurrent.TimeoutException}
+     * when the lock is not acquired in time and with a {@link ConnectionInterruptedException} when the zookeeper
+     * connection was suspended/lost meanwhile. Cancelling the future abandons the acquisition.
+     *
+     * @param client
+     * @param path
+     * @param lockData
+     * @param time negative to wait forever
+     * @param unit
+     * @return
+     */
+    public static CompletableFuture<LockHandle> acquireAsync(LockingClient client, String path, String lockData, long time, TimeUnit unit) {
+        if (client.isConnectionInterrupted()) {
+            CompletableFuture<LockHandle> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new ConnectionInterruptedException("Not acquiring lock on path: " + path + " as zookeeper connection was recently suspended/lost"));
+            return failed;
+        }
+        DistributedMutex mutex = new DistributedMutex(client, path, StringUtils.isBlank(lockData) ? null : lockData.getBytes(StandardCharsets.UTF_8));
+        long epoch = client.getConnectionEpoch();
+        long start = System.currentTimeMillis();
+        CompletableFuture<String> acquisition = mutex.acquireAsync(time, unit);
+        CompletableFuture<LockHandle> handle = acquisition.thenApply(node -> {
+            if (epoch != client.getConnectionEpoch()) {
+                mutex.releaseInBackground(node);
+                throw new ConnectionInterruptedException("Released lock as zookeeper connection was recently suspended/lost on path: " + path);
+            }
+            LockHandle lockHandle = new LockHandle(client, mutex, node, epoch);
+            LockEvents.acquired(null, path, null, lockHandle.lockTakenTime - start);
+            return lockHandle;
+        });
+        // cancelling the returned stage has to reach the acquisition to give the lock node back
+        handle.whenComplete((h, t) -> {
+            if (handle.isCancelled() && !acquisition.cancel(false)) {
+                acquisition.thenAccept(mutex::releaseInBackground);
+            }
+        });
+        return handle;
+    }
+
+    /**
+     * Acquires the lock on {@code path} on every client, one after the other in the given order, e.g. on both
+     * ensembles of a path moving between {@link ShardedLockingClient} shards. The returned handle releases all of them.
+     *
+     * @param clients
+     * @param path
+     * @param lockData
+     * @param time negative to wait forever, per client
+     * @param unit
+     * @return
+     */
+    public static CompletableFuture<LockHandle> acquireAsync(List<LockingClient> clients, String path, String lockData, long time, TimeUnit unit) {
+        if (clients.size() == 1) {
+            return acquireAsync(clients.get(0), path, lockData, time, unit);
+        }
+        CompletableFuture<LockHandle> handle = new CompletableFuture<>();
+        CompletableFuture<LockHandle> first = acquireAsync(clients.get(0), path, lockData, time, unit);
+        handle.whenComplete((h, t) -> {
+            if (handle.isCancelled()) {
+                first.cancel(false);
+            }
+        });
+        first.whenComplete((outer, t) -> {
+            if (t != null) {
+                handle.completeExceptionally(unwrap(t));
+                return;
+            }
+            if (handle.isDone()) {
+                outer.release();
+                return;
+            }
+            CompletableFuture<LockHandle> rest = acquireAsync(clients.subList(1, clients.size()), path, lockData, time, unit);
+            handle.whenComplete((h, t2) -> {
+                if (handle.isCancelled()) {
+                    rest.cancel(false);
+                }
+            });
+            rest.whenComplete((inner, t3) -> {
+                if (t3 != null) {
+                    outer.release();
+                    handle.completeExceptionally(unwrap(t3));
+                } else {
+                    inner.enclosing = outer;
+                    if (!handle.complete(inner)) {
+                        inner.release();
+                    }
+                }
+            });
+        });
+        return handle;
+    }
+
+    public String getPath() {
+        return mutex.getPath();
+    }
+
+    /**
+     * @return true if the zookeeper connection was suspended/lost since the lock was acquired, in which case the lock
+     *         may already be held elsewhere
+     */
+    public boolean isConnectionInterrupted() {
+        LockHandle outer = enclosing;
+        return epoch != client.getConnectionEpoch() || outer != null && outer.isConnectionInterrupted();
+    }
+
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    /**
+     * Releases the lock, from any thread. Subsequent calls are no-ops.
+     */
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            try {
+                Object event = LockEvents.beginRelease();
+                mutex.release(node);
+                LockEvents.released(event, getPath(), null, System.currentTimeMillis() - lockTakenTime);
+            } finally {
+                LockHandle outer = enclosing;
+                if (outer != null) {
+                    outer.release();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    @Override
+    public String toString() {
+        return "LockHandle: " + node;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SharedMetricRegistries;
+import com.uc.wms.lock.exception.ConnectionInterruptedException;
+import com.uc.wms.lock.exception.DeadlockException;
+import com.uc.wms.lock.exception.LockRejectedException;
+
+/**
+ * Lock instrumentation, published in the shared metrics registry {@value #REGISTRY_NAME} so that metrics-aspectj
+ * {@code @Metrics(registry = ...)} annotated beans and the reporters see the same registry.
+ * <p>
+ * Timers and counters are named {@code wms.lock.<LEVEL>.<NAMESPACE>[.<section>].<metric>} after the
+ * {@link LockPaths} layout of the lock path. Recording is a single volatile read when disabled, which is the default;
+ * {@link LockingClientConfig} enables it as per the {@code zookeeper.lock.metrics.enabled} property.
+ */
+public final class LockMetrics {
+
+    public static final String      REGISTRY_NAME = "wms-locking";
+
+    private static final String     PREFIX        = "wms.lock";
+
+    private static final String     NO_SECTION    = "default";
+
+    private static final String[]   CLIENT_GAUGES = { "threadsHoldingLocks", "connected", "connectionInterruptions" };
+
+    private static volatile boolean enabled;
+
+    private LockMetrics() {
+    }
+
+    public static MetricRegistry getRegistry() {
+        return SharedMetricRegistries.getOrCreate(REGISTRY_NAME);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        LockMetrics.enabled = enabled;
+    }
+
+    public static void onAcquired(String path, String section, long waitMs) {
+        if (enabled) {
+            getRegistry().timer(name(path, section, "acquire")).update(waitMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static void onReleased(String path, String section, long holdMs, long releaseMs) {
+        if (enabled) {
+            MetricRegistry registry = getRegistry();
+            registry.timer(name(path, section, "hold")).update(holdMs, TimeUnit.MILLISECONDS);
+            registry.timer(name(path, section, "release")).update(releaseMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static void onTimeout(String path) {
+        if (enabled) {
+            getRegistry().counter(name(path, null, "timeouts")).inc();
+        }
+    }
+
+    public static void onFailure(String path, RuntimeException e) {
+        if (enabled) {
+            getRegistry().counter(name(path, null, getFailureMetric(e))).inc();
+        }
+    }
+
+    /* for the paths that skip acquisition because of an interrupted connection without throwing */
+    public static void onConnectionInterrupted(String path) {
+        if (enabled) {
+            getRegistry().counter(name(path, null, "connectionInterrupted")).inc();
+        }
+    }
+
+    /* nodes reclaimed by the LockPathReaper below a namespace root */
+    public static void onReaped(String namespacePath, long count) {
+        if (enabled) {
+            getRegistry().counter(name(namespacePath, null, "reaped")).inc(count);
+        }
+    }
+
+    /* @Locks methods run without the zookeeper lock, see OptimisticLockPolicy */
+    public static void onOptimisticAttempt(String namespacePath, boolean conflicted) {
+        if (enabled) {
+            MetricRegistry registry = getRegistry();
+            registry.counter(name(namespacePath, null, "optimisticAttempts")).inc();
+            if (conflicted) {
+                registry.counter(name(namespacePath, null, "optimisticConflicts")).inc();
+            }
+        }
+    }
+
+    /**
+     * Gauges for threads holding locks, zookeeper connectivity and connection interruptions of the client, named
+     * {@code wms.lock.client.<destination>.<metric>} after its sanitized connect string, so that every ensemble of a
+     * {@link ShardedLockingClient} shows on its own. Always registered, gauges cost nothing until read.
+     */
+    static void registerClientGauges(final LockingClient client) {
+        MetricRegistry registry = getRegistry();
+        String clientName = getClientName(client);
+        register(registry, MetricRegistry.name(clientName, CLIENT_GAUGES[0]), new ClientGauge<Integer>(client) {
+            @Override
+            public Integer getValue() {
+                return client.getThreadCountHoldingLocks();
+            }
+        });
+        register(registry, MetricRegistry.name(clientName, CLIENT_GAUGES[1]), new ClientGauge<Integer>(client) {
+            @Override
+            public Integer getValue() {
+                return client.isZookeeperConnected() ? 1 : 0;
+            }
+        });
+        register(registry, MetricRegistry.name(clientName, CLIENT_GAUGES[2]), new ClientGauge<Long>(client) {
+            @Override
+            public Long getValue() {
+                return client.getConnectionEpoch();
+            }
+        });
+    }
+
+    /**
+     * Removes the gauges of a closed client, unless a later client of the same destination took them over.
+     */
+    static void unregisterClientGauges(LockingClient client) {
+        MetricRegistry registry = getRegistry();
+        String clientName = getClientName(client);
+        for (String metric : CLIENT_GAUGES) {
+            String gaugeName = MetricRegistry.name(clientName, metric);
+            Metric gauge = registry.getMetrics().get(gaugeName);
+            if (gauge instanceof ClientGauge && ((ClientGauge<?>) gauge).client == client) {
+                registry.remove(gaugeName);
+            }
+        }
+    }
+
+    private static String getClientName(LockingClient client) {
+        return MetricRegistry.name(PREFIX, "client", LockPaths.sanitizeKey(client.getDestination()));
+    }
+
+    private static void register(MetricRegistry registry, String name, Gauge<?> gauge) {
+        // the latest client of a destination wins
+        registry.remove(name);
+        registry.register(name, gauge);
+    }
+
+    private static String getFailureMetric(RuntimeException e) {
+        if (e instanceof ConnectionInterruptedException) {
+            return "connectionInterrupted";
+        }
+        if (e instanceof DeadlockException) {
+            return "deadlocks";
+        }
+        return e instanceof LockRejectedException ? "rejected" : "lockingErrors";
+    }
+
+    private static String name(String path, String section, String metric) {
+        StringBuilder name = new StringBuilder(64).append(PREFIX);
+        // /LEVEL/NAMESPACE/... -> .LEVEL.NAMESPACE
+        int segments = 0;
+        for (int i = 0; i < path.length() && segments < 3; i++) {
+            char c = path.charAt(i);
+            if (c == LockPaths.SEPARATOR) {
+                if (++segments < 3) {
+                    name.append('.');
+                }
+            } else {
+                name.append(c);
+            }
+        }
+        if (section != null) {
+            name.append('.').append(section.isEmpty() ? NO_SECTION : section);
+        }
+        return name.append('.').append(metric).toString();
+    }
+
+    private abstract static class ClientGauge<T> implements Gauge<T> {
+        private final LockingClient client;
+
+        ClientGauge(LockingClient client) {
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+/**
+ * Modes of multi-granularity locks over the {@code GLOBAL > TENANT > FACILITY} hierarchy, see
+ * {@link AbstractLockingService#getHierarchicalLock}. A lock in {@code S} or {@code X} on a granule first takes the
+ * matching intention, {@code IS} or {@code IX}, on every granule above it. Compatibility:
+ *
+ * <pre>
+ *       IS  IX  S   X
+ *   IS  y   y   y   n
+ *   IX  y   y   n   n
+ *   S   y   n   y   n
+ *   X   n   n   n   n
+ * </pre>
+ */
+public enum LockMode {
+    IS,
+    IX,
+    S,
+    X;
+
+    /* no name is contained in another one, nor in the protection prefix */
+    private final String nodeName = "__" + name() + "__";
+
+    public boolean isCompatible(LockMode other) {
+        switch (this) {
+            case IS:
+                return other != X;
+            case IX:
+                return other == IS || other == IX;
+            case S:
+                return other == IS || other == S;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return the mode taken on the granules above a lock in this mode
+     */
+    public LockMode getIntention() {
+        return this == S || this == IS ? IS : IX;
+    }
+
+    String getNodeName() {
+        return nodeName;
+    }
+
+    /**
+     * @param nodeName lock node name, with or without protection prefix and sequence
+     * @return mode of the node, null for nodes of other lock protocols
+     */
+    static LockMode of(String nodeName) {
+        for (LockMode mode : values()) {
+            if (nodeName.contains(mode.nodeName)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
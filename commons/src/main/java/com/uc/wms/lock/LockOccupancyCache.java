@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+
+/**
+ * How many lock nodes lock paths currently have, from a child watch per path rather than a write. Lets a non-blocking
+ * {@code tryLock()} fail on a busy lock without creating and deleting a lock node, which are two quorum writes,
+ * whereas the children are read from the server the client is connected to. The count, the holder and its waiters,
+ * also sizes the queue for admission control, see {@link LockAdmission}.
+ * <p>
+ * An entry is dropped when its watch fires and ignored once the connection epoch changed, as watch events may be
+ * lost meanwhile. The answer can lag a release by the watch latency, which is fine for pollers. The cache is
+ * bounded by {@value #SIZE_PROPERTY}, evicting an arbitrary entry when full.
+ */
+class LockOccupancyCache {
+
+    static final String                        SIZE_PROPERTY = "wms.lock.occupancyCache.size";
+
+    private static final int                   MAX_SIZE      = Integer.getInteger(SIZE_PROPERTY, 10000);
+
+    private final LockingClient                client;
+
+    private final ConcurrentMap<String, Entry> entries       = new ConcurrentHashMap<>();
+
+    LockOccupancyCache(LockingClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param path
+     * @return true if the lock path has lock nodes, as of the last watch event
+     * @throws Exception
+     */
+    boolean isOccupied(String path) throws Exception {
+        return getParticipantCount(path) > 0;
+    }
+
+    /**
+     * @param path
+     * @return number of lock nodes of the lock path, as of the last watch event
+     * @throws Exception
+     */
+    int getParticipantCount(String path) throws Exception {
+        long epoch = client.getConnectionEpoch();
+        Entry entry = entries.get(path);
+        if (entry != null && entry.epoch == epoch) {
+            return entry.participants;
+        }
+        entry = new Entry(path, epoch);
+        List<String> children;
+        try {
+            children = client.getLockingClient().getChildren().usingWatcher(entry).forPath(path);
+        } catch (KeeperException.NoNodeException e) {
+            // never locked or reaped, no watch is left on a missing node so nothing is cached
+            return 0;
+        }
+        entry.participants = children.size();
+        if (entries.size() >= MAX_SIZE) {
+            Iterator<String> it = entries.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(path, entry);
+        // the watch may have fired before the entry was published
+        if (entry.invalidated) {
+            entries.remove(path, entry);
+        }
+        return entry.participants;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private final class Entry implements Watcher {
+        private final String     path;
+        private final long       epoch;
+        private volatile int     participants;
+        private volatile boolean invalidated;
+
+        Entry(String path, long epoch) {
+            this.path = path;
+            this.epoch = epoch;
+        }
+
+        @Override
+        public void process(WatchedEvent event) {
+            invalidated = true;
+            entries.remove(path, this);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes the empty key (and tenant/facility) nodes every released lock leaves behind below {@code /LEVEL/NAMESPACE},
+ * in the spirit of Curator's {@code ChildReaper}. Lock parents are created as container nodes, which zookeeper 3.5+
+ * removes by itself once emptied; this covers servers without container support and paths created before.
+ * <p>
+ * A node is reaped when it is persistent, has no children and its children have not changed since a pass that started
+ * at least {@code minIdleMs} ago: every pass notes the zxid of each ensemble when it starts, and a node is idle when
+ * its {@code pzxid}, the zxid of its last child create/delete, is older than that of such a pass. Hot keys hence stay,
+ * however old their node. A node emptied by the pass itself is reaped right away if the pass's deletes were its only
+ * child changes, else by a later pass.
+ * <p>
+ * A lock racing the delete is safe: lock nodes are created with their parents, which are recreated when missing, and a
+ * parent holding a lock node can not be deleted. Deletes are paced to {@code maxDeletesPerSecond} and run on the
+ * reaper's own thread, namespace roots are never deleted.
+ */
+public class LockPathReaper {
+
+    private static final Logger                  LOG                            = LoggerFactory.getLogger(LockPathReaper.class);
+
+    public static final int                      DEFAULT_MAX_DELETES_PER_SECOND = 100;
+
+    /* written at the start of every pass, its zxid marks the pass */
+    static final String                          MARKER                         = "/LOCK_REAPER";
+
+    private final ShardedLockingClient           clients;
+
+    private final Set<Namespace>                 namespaces;
+
+    private final long                           minIdleMs;
+
+    private final long                           pauseNanos;
+
+    private final Map<Namespace, LongAdder>      reclaimed                      = new EnumMap<>(Namespace.class);
+
+    private final ScheduledExecutorService       executor;
+
+    /* per ensemble, the passes younger than minIdleMs and the youngest older one, oldest first */
+    private final Map<LockingClient, Deque<Pass>> passes                         = new HashMap<>();
+
+    private long                                 nextDeleteNanos;
+
+    private volatile boolean                     closed;
+
+    /**
+     * @param clients
+     * @param namespaces namespaces to reap, all when empty
+     * @param minIdleMs
+     * @param maxDeletesPerSecond
+     */
+    public LockPathReaper(ShardedLockingClient clients, Collection<Namespace> namespaces, long minIdleMs, int maxDeletesPerSecond) {
+        LOG.info("Instantiating LockPathReaper for namespaces: {} with minIdle: {} ms and maxDeletesPerSecond: {}", namespaces.isEmpty() ? "ALL" : namespaces, minIdleMs,
+                maxDeletesPerSecond);
+        this.clients = clients;
+        this.namespaces = namespaces.isEmpty() ? EnumSet.allOf(Namespace.class) : EnumSet.copyOf(namespaces);
+        this.minIdleMs = minIdleMs;
+        this.pauseNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxDeletesPerSecond);
+        this.nextDeleteNanos = System.nanoTime();
+        for (Namespace namespace : this.namespaces) {
+            reclaimed.put(namespace, new LongAdder());
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lock-path-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reaps every {@code intervalMs}, starting after one interval.
+     *
+     * @param intervalMs
+     */
+    public void start(long intervalMs) {
+        executor.scheduleWithFixedDelay(this::reap, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * One pass over every ensemble, level and namespace.
+     *
+     * @return number of nodes reclaimed by this pass
+     */
+    public synchronized long reap() {
+        long start = System.currentTimeMillis();
+        long total = 0;
+        for (LockingClient client : clients.getShards()) {
+            CuratorFramework curator = client.getLockingClient();
+            long horizon;
+            try {
+                horizon = getHorizon(client);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            } catch (Exception e) {
+                LOG.error("Error while starting to reap lock paths on: " + client.getDestination(), e);
+                continue;
+            }
+            if (horizon < 0) {
+                // the first pass only marks where the next ones start from
+                continue;
+            }
+            for (Namespace namespace : namespaces) {
+                for (Level level : Level.values()) {
+                    if (closed) {
+                        return total;
+                    }
+                    String root = LockPaths.getNamespacePath(level, namespace);
+                    try {
+                        int count = reapChildren(curator, root, horizon);
+                        if (count > 0) {
+                            total += count;
+                            reclaimed.get(namespace).add(count);
+                            LockMetrics.onReaped(root, count);
+                            LOG.info("Reaped {} idle lock paths below: {} on: {}", count, root, client.getDestination());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return total;
+                    } catch (Exception e) {
+                        LOG.error("Error while reaping lock paths below: " + root + " on: " + client.getDestination(), e);
+                    }
+                }
+            }
+        }
+        LOG.info("Reaped {} idle lock paths in {} ms", total, System.currentTimeMillis() - start);
+        return total;
+    }
+
+    public long getReclaimedCount(Namespace namespace) {
+        LongAdder count = reclaimed.get(namespace);
+        return count == null ? 0 : count.sum();
+    }
+
+    public long getReclaimedCount() {
+        long total = 0;
+        for (LongAdder count : reclaimed.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+    }
+
+    private int reapChildren(CuratorFramework curator, String path, long horizon) throws Exception {
+        List<String> children;
+        try {
+            children = curator.getChildren().forPath(path);
+        } catch (KeeperException.NoNodeException e) {
+            return 0;
+        }
+        int count = 0;
+        for (String child : children) {
+            if (closed) {
+                break;
+            }
+            count += reap(curator, path + LockPaths.SEPARATOR + child, horizon);
+        }
+        return count;
+    }
+
+    /* depth first, nodes whose children last changed at or after the horizon zxid are in use */
+    private int reap(CuratorFramework curator, String path, long horizon) throws Exception {
+        Stat stat = curator.checkExists().forPath(path);
+        if (stat == null || stat.getEphemeralOwner() != 0) {
+            // gone or a lock node, whose parent is in use
+            return 0;
+        }
+        int count = 0;
+        if (stat.getNumChildren() > 0) {
+            Stat before = stat;
+            count += reapChildren(curator, path, horizon);
+            stat = curator.checkExists().forPath(path);
+            if (stat == null || stat.getNumChildren() > 0) {
+                return count;
+            }
+            // every child delete bumps cversion once, any more changes were locks taken meanwhile
+            if (before.getPzxid() >= horizon || stat.getCversion() - before.getCversion() != before.getNumChildren()) {
+                return count;
+            }
+        } else if (stat.getPzxid() >= horizon) {
+            return count;
+        }
+        pace();
+        try {
+            curator.delete().forPath(path);
+            count++;
+        } catch (KeeperException.NotEmptyException | KeeperException.NoNodeException e) {
+            // locked meanwhile or reaped by zookeeper as a container
+        }
+        return count;
+    }
+
+    /* zxid of the youngest pass at least minIdleMs old, -1 if there is none yet; notes the start of this pass */
+    private long getHorizon(LockingClient client) throws Exception {
+        long now = System.currentTimeMillis();
+        Deque<Pass> clientPasses = passes.computeIfAbsent(client, c -> new ArrayDeque<>());
+        clientPasses.addLast(new Pass(now, getZxid(client.getLockingClient())));
+        Pass horizon = null;
+        while (now - clientPasses.peekFirst().startMillis >= minIdleMs) {
+            horizon = clientPasses.pollFirst();
+            if (clientPasses.isEmpty()) {
+                break;
+            }
+        }
+        if (horizon == null) {
+            return -1;
+        }
+        clientPasses.addFirst(horizon);
+        return horizon.zxid;
+    }
+
+    /* current zxid of the ensemble, as seen by a write */
+    private static long getZxid(CuratorFramework curator) throws Exception {
+        try {
+            return curator.setData().forPath(MARKER).getMzxid();
+        } catch (KeeperException.NoNodeException e) {
+            try {
+                curator.create().forPath(MARKER);
+            } catch (KeeperException.NodeExistsException ignored) {
+                // created by the reaper of another node
+            }
+            return curator.setData().forPath(MARKER).getMzxid();
+        }
+    }
+
+    private void pace() throws InterruptedException {
+        long now = System.nanoTime();
+        long wait = nextDeleteNanos - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        nextDeleteNanos = Math.max(now, nextDeleteNanos) + pauseNanos;
+    }
+
+    private static final class Pass {
+        private final long startMillis;
+        private final long zxid;
+
+        Pass(long startMillis, long zxid) {
+            this.startMillis = startMillis;
+            this.zxid = zxid;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+
+/**
+ * Lock path layout shared by the locking service and the aspect. Every lock lives at
+ * {@code /<LEVEL>/<NAMESPACE>[/<scope>]/<key>}, the namespace roots are computed once per {@link Level} x
+ * {@link Namespace}. Multi-granularity locks live in a tree of their own, see {@link #getGranulePath}.
+ */
+public final class LockPaths {
+
+    public static final char                                SEPARATOR       = '/';
+
+    public static final String                              HIERARCHY       = "HIERARCHY";
+
+    /* reserved node names, see sanitizeKey */
+    public static final String                              GRANULE_LOCK    = "~lock";
+
+    public static final String                              GRANULE_KEY     = "~key-";
+
+    public static final String                              GRANULE_STRIPE  = "~lock-";
+
+    public static final String                              SEMAPHORE       = "~permits-";
+
+    public static final String                              BUCKET          = "~bucket-";
+
+    public static final String                              CANDIDATES      = "~candidates";
+
+    private static final Map<Level, Map<Namespace, String>> ROOTS           = new EnumMap<>(Level.class);
+
+    private static final Map<Namespace, String>             HIERARCHY_ROOTS = new EnumMap<>(Namespace.class);
+
+    static {
+        for (Level level : Level.values()) {
+            Map<Namespace, String> namespaceRoots = new EnumMap<>(Namespace.class);
+            for (Namespace namespace : Namespace.values()) {
+                namespaceRoots.put(namespace, SEPARATOR + level.name() + SEPARATOR + namespace.name());
+            }
+            ROOTS.put(level, namespaceRoots);
+        }
+        for (Namespace namespace : Namespace.values()) {
+            HIERARCHY_ROOTS.put(namespace, SEPARATOR + HIERARCHY + SEPARATOR + namespace.name());
+        }
+    }
+
+    private LockPaths() {
+    }
+
+    /**
+     * @param level
+     * @param namespace
+     * @return precomputed root path of the namespace at the given level, e.g. {@code /TENANT/SALE_ORDER}
+     */
+    public static String getNamespacePath(Level level, Namespace namespace) {
+        return ROOTS.get(level).get(namespace);
+    }
+
+    /**
+     * @param path lock path
+     * @return root path of the namespace the lock path is below, e.g. {@code /TENANT/SALE_ORDER}
+     */
+    public static String getNamespacePath(String path) {
+        int end = path.indexOf(SEPARATOR, path.indexOf(SEPARATOR, 1) + 1);
+        return end < 0 ? path : path.substring(0, end);
+    }
+
+    /**
+     * @param level
+     * @param namespace
+     * @param scope tenant and/or facility the lock is scoped to, empty for GLOBAL locks
+     * @param key sanitized lock key
+     * @return
+     */
+    public static String getLockPath(Level level, Namespace namespace, String scope, String key) {
+        String root = getNamespacePath(level, namespace);
+        StringBuilder path = new StringBuilder(root.length() + (scope == null ? 0 : scope.length() + 1) + key.length() + 1).append(root);
+        if (scope != null && !scope.isEmpty()) {
+            path.append(SEPARATOR).append(scope);
+        }
+        return path.append(SEPARATOR).append(key).toString();
+    }
+
+    /**
+     * @param path lock path
+     * @param prefix
+     * @return path of the sibling node named after the path's key with the prefix, e.g. a semaphore next to its key
+     */
+    public static String prefixKey(String path, String prefix) {
+        int keyStart = path.lastIndexOf(SEPARATOR) + 1;
+        return new StringBuilder(path.length() + prefix.length()).append(path, 0, keyStart).append(prefix).append(path, keyStart, path.length()).toString();
+    }
+
+    /**
+     * Granules of a namespace nest as {@code /HIERARCHY/<NAMESPACE>[/<tenant>[/<facility>]]}, their lock nodes being
+     * under {@value #GRANULE_LOCK} and those of keys under {@value #GRANULE_KEY}{@code <key>}, below the granule of the
+     * key's level. The global granule of a namespace has its lock nodes spread over stripes instead, see
+     * {@link #getGlobalStripePath}.
+     *
+     * @param namespace
+     * @param scope as per {@link #getLockPath}
+     * @return
+     */
+    public static String getGranulePath(Namespace namespace, String scope) {
+        String root = HIERARCHY_ROOTS.get(namespace);
+        return scope == null || scope.isEmpty() ? root : root + SEPARATOR + scope;
+    }
+
+    /**
+     * @param namespace
+     * @param scope as per {@link #getLockPath}, null for the key
+     * @param key sanitized lock key, null for the granule itself
+     * @return path of the lock nodes of the granule, or of the key below it
+     */
+    public static String getGranuleLockPath(Namespace namespace, String scope, String key) {
+        return getGranulePath(namespace, scope) + SEPARATOR + (key == null ? GRANULE_LOCK : GRANULE_KEY + key);
+    }
+
+    /**
+     * @param namespace
+     * @param stripe
+     * @return path of the lock nodes of one stripe of the namespace's global granule, {@value #GRANULE_STRIPE}{@code <stripe>}
+     */
+    public static String getGlobalStripePath(Namespace namespace, int stripe) {
+        return HIERARCHY_ROOTS.get(namespace) + SEPARATOR + GRANULE_STRIPE + stripe;
+    }
+
+    /**
+     * Replaces every character outside {@code [a-zA-Z0-9_]} with {@code '_'}. Returns the same instance when the key
+     * is already clean, which is the common case.
+     * <p>
+     * Sanitized keys, like scope codes, never contain {@code '~'}, so the node names reserved here with a leading
+     * {@code '~'}, e.g. of granule locks, of semaphores at {@value #SEMAPHORE}{@code <key>}, of escalation buckets and
+     * of job leadership candidates, can not clash with a key or scope.
+     *
+     * @param key
+     * @return
+     */
+    public static String sanitizeKey(String key) {
+        int length = key.length();
+        int i = 0;
+        while (i < length && isKeyChar(key.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return key;
+        }
+        StringBuilder sanitized = new StringBuilder(length).append(key, 0, i);
+        for (; i < length; i++) {
+            char c = key.charAt(i);
+            if (isKeyChar(c)) {
+                sanitized.append(c);
+            } else {
+                sanitized.append('_');
+                // a surrogate pair is one code point, same as the regex it replaces
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(key.charAt(i + 1))) {
+                    i++;
+                }
+            }
+        }
+        return sanitized.toString();
+    }
+
+    private static boolean isKeyChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
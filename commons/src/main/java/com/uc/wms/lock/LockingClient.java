@@ -7,26 +7,61 @@
 
 package com.uc.wms.lock;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import com.uc.wms.lock.exception.LockingException;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.framework.state.ConnectionState;
 import org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class LockingClient {
 
-    private static final Logger LOG                 = LoggerFactory.getLogger(LockingClient.class);
+    private static final Logger LOG                  = LoggerFactory.getLogger(LockingClient.class);
 
     private CuratorFramework    lockingClient;
 
-    private static final int    DEFAULT_MAX_RETRIES = 5;
+    private static final int    DEFAULT_MAX_RETRIES  = 5;
+
+    private static final int    DEFAULT_SLEEP_MS     = 10;
 
-    private static final int    DEFAULT_SLEEP_MS    = 10;
+    private static final long   WARM_UP_MIN_RETRY_MS = TimeUnit.SECONDS.toMillis(1);
+
+    private static final long   WARM_UP_MAX_RETRY_MS = TimeUnit.MINUTES.toMillis(1);
 
     private DistributedLockingHelper lockingHelper;
 
+    private final String        destination;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    private volatile LockOccupancyCache occupancyCache;
+
+    private volatile ReadLeaseManager readLeaseManager;
+
+    private volatile LockAdmission admission;
+
+    private volatile DeadlockDetector deadlockDetector;
+
+    private volatile CoalescingLockManager coalescingLockManager;
+
+    private volatile CompletableFuture<Void> warmUp;
+
+    private volatile ScheduledExecutorService warmUpExecutor;
+
+    private volatile long warmUpConnectionTimeoutMs;
+
     public LockingClient(String destination) {
         this(destination, DEFAULT_SLEEP_MS, DEFAULT_MAX_RETRIES);
     }
@@ -42,6 +77,7 @@ public class LockingClient {
                 connectionTimeoutMs,
                 sleepMs,
                 maxRetry);
+        this.destination = destination;
         LOG.info("Creating Locking Helper..");
         this.lockingHelper = new DistributedLockingHelper();
 
@@ -60,21 +96,251 @@ public class LockingClient {
                         break;
                     case RECONNECTED:
                         LOG.info("Zookeeper connection re-established");
+                        retryWarmUp();
                         break;
                 }
+                LockEvents.connectionStateChanged(newState.name(), lockingHelper.getConnectionEpoch());
             }
         });
 
+        LockMetrics.registerClientGauges(this);
+
         LOG.info("Starting Locking client..");
         long start = System.currentTimeMillis();
         lockingClient.start();
         LOG.info("Done starting LockingClient in {} ms", (System.currentTimeMillis() - start));
     }
 
+    /**
+     * Connects and creates the {@code /LEVEL/NAMESPACE} root of every namespace on a background thread, so that the
+     * first lock of each does not pay for creating them. Roots are persistent, the reaper never deletes them. A failed
+     * attempt, e.g. not connected in time, is retried with a backoff doubling from {@value #WARM_UP_MIN_RETRY_MS} ms
+     * up to a minute, and right away once the connection is re-established.
+     *
+     * @param connectionTimeoutMs per attempt
+     * @return completes once every root exists, exceptionally only if the client is closed first; see
+     *         {@link #isReady()}
+     */
+    public synchronized CompletableFuture<Void> warmUp(long connectionTimeoutMs) {
+        if (warmUp == null) {
+            warmUpConnectionTimeoutMs = connectionTimeoutMs;
+            warmUpExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "locking-client-warmup");
+                thread.setDaemon(true);
+                return thread;
+            });
+            warmUp = new CompletableFuture<>();
+            warmUpExecutor.execute(() -> tryWarmUp(WARM_UP_MIN_RETRY_MS));
+        }
+        return warmUp;
+    }
+
+    /* for readiness checks: connected and, if warming up, done with it */
+    public boolean isReady() {
+        CompletableFuture<Void> current = warmUp;
+        return (current == null || (current.isDone() && !current.isCompletedExceptionally())) && isZookeeperConnected();
+    }
+
+    /* warm-up thread only, attempts queued behind a successful one find it done */
+    private void tryWarmUp(long retryMs) {
+        CompletableFuture<Void> current = warmUp;
+        if (current.isDone()) {
+            return;
+        }
+        try {
+            createNamespaceRoots(warmUpConnectionTimeoutMs);
+        } catch (LockingException e) {
+            LOG.error("Error while warming up LockingClient for destination: " + destination + ", retrying in " + retryMs + " ms", e);
+            try {
+                warmUpExecutor.schedule(() -> tryWarmUp(Math.min(WARM_UP_MAX_RETRY_MS, retryMs * 2)), retryMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException closed) {
+                // closed meanwhile
+            }
+            return;
+        }
+        current.complete(null);
+        warmUpExecutor.shutdownNow();
+    }
+
+    private void retryWarmUp() {
+        CompletableFuture<Void> current = warmUp;
+        if (current != null && !current.isDone()) {
+            try {
+                warmUpExecutor.execute(() -> tryWarmUp(WARM_UP_MIN_RETRY_MS));
+            } catch (RejectedExecutionException e) {
+                // done or closed meanwhile
+            }
+        }
+    }
+
+    private void createNamespaceRoots(long connectionTimeoutMs) {
+        long start = System.currentTimeMillis();
+        int created = 0;
+        try {
+            if (!lockingClient.blockUntilConnected((int) connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new LockingException("Not connected to zookeeper: " + destination + " in " + connectionTimeoutMs + " ms");
+            }
+            for (Level level : Level.values()) {
+                for (Namespace namespace : Namespace.values()) {
+                    try {
+                        lockingClient.create().creatingParentsIfNeeded().withMode(CreateMode.PERSISTENT).forPath(LockPaths.getNamespacePath(level, namespace));
+                        created++;
+                    } catch (KeeperException.NodeExistsException e) {
+                        // created by an earlier deployment or another node
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LockingException(e);
+        } catch (LockingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LockingException(e);
+        }
+        LOG.info("Warmed up LockingClient for destination: {}, created {} namespace roots in {} ms", destination, created, System.currentTimeMillis() - start);
+    }
+
+    public void close() {
+        LOG.info("Closing LockingClient..");
+        ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        DeadlockDetector detector = deadlockDetector;
+        if (detector != null) {
+            detector.close();
+        }
+        CoalescingLockManager coalescing = coalescingLockManager;
+        if (coalescing != null) {
+            coalescing.close();
+        }
+        synchronized (this) {
+            if (warmUp != null) {
+                warmUpExecutor.shutdownNow();
+                warmUp.completeExceptionally(new LockingException("LockingClient for destination: " + destination + " closed before warming up"));
+            }
+        }
+        LockMetrics.unregisterClientGauges(this);
+        lockingClient.close();
+    }
+
+    /* zookeeper connect string of the ensemble */
+    public String getDestination() {
+        return destination;
+    }
+
     CuratorFramework getLockingClient() {
         return this.lockingClient;
     }
 
+    /* shared timer for lock timeouts and housekeeping, tasks must not block */
+    ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null) {
+            synchronized (this) {
+                current = scheduler;
+                if (current == null) {
+                    current = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "locking-client-scheduler");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    LockOccupancyCache getOccupancyCache() {
+        LockOccupancyCache current = occupancyCache;
+        if (current == null) {
+            synchronized (this) {
+                current = occupancyCache;
+                if (current == null) {
+                    current = new LockOccupancyCache(this);
+                    occupancyCache = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    ReadLeaseManager getReadLeaseManager() {
+        ReadLeaseManager current = readLeaseManager;
+        if (current == null) {
+            synchronized (this) {
+                current = readLeaseManager;
+                if (current == null) {
+                    current = new ReadLeaseManager(this);
+                    readLeaseManager = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Admission control: a {@link DistributedLock#tryLock(long, java.util.concurrent.TimeUnit)} with a wait time fails
+     * right away with a {@link com.uc.wms.lock.exception.LockRejectedException} when the lock nodes already queued on
+     * the path would, at the average hold time of the namespace, outlast the wait time. Off by default.
+     *
+     * @param enabled
+     */
+    public void setAdmissionControl(boolean enabled) {
+        admission = enabled ? new LockAdmission(this) : null;
+    }
+
+    /* null unless admission control is enabled */
+    LockAdmission getAdmission() {
+        return admission;
+    }
+
+    /**
+     * Deadlock detection: threads waiting for a lock longer than the interval publish their wait, and waits closing a
+     * cycle of lock holders across JVMs fail with a {@link com.uc.wms.lock.exception.DeadlockException} after about two
+     * more intervals instead of timing out, see {@link DeadlockDetector}. Off by default, every JVM sharing the ensemble
+     * should enable it.
+     *
+     * @param intervalMs 0 to disable
+     */
+    public synchronized void setDeadlockDetection(long intervalMs) {
+        DeadlockDetector current = deadlockDetector;
+        deadlockDetector = intervalMs > 0 ? new DeadlockDetector(this, intervalMs) : null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /* null unless deadlock detection is enabled */
+    DeadlockDetector getDeadlockDetector() {
+        return deadlockDetector;
+    }
+
+    /**
+     * Lock coalescing: {@link AbstractLockingService#getLock} locks on this ensemble queue up per path in the JVM and
+     * only the head of each queue competes in zookeeper, see {@link CoalescingLockManager}. Off by default. Coalesced
+     * lock nodes are handed over between threads, so they carry no owner identity for deadlock detection and skip
+     * admission control.
+     *
+     * @param enabled
+     * @param lingerMs how long an idle lock node is kept for a local requester, 0 to release it right away
+     * @param maxHandoffs
+     */
+    public synchronized void setLockCoalescing(boolean enabled, long lingerMs, int maxHandoffs) {
+        CoalescingLockManager current = coalescingLockManager;
+        coalescingLockManager = enabled ? new CoalescingLockManager(this, lingerMs, maxHandoffs) : null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /* null unless lock coalescing is enabled */
+    CoalescingLockManager getCoalescingLockManager() {
+        return coalescingLockManager;
+    }
+
     public boolean isZookeeperConnected(){
         return this.lockingClient.getZookeeperClient().isConnected();
     }
@@ -94,6 +360,11 @@ public class LockingClient {
         return this.lockingHelper.isConnectionInterrupted();
     }
 
+    /* changes whenever zookeeper connection is suspended/lost, a lock held across a change can not be trusted */
+    public long getConnectionEpoch() {
+        return this.lockingHelper.getConnectionEpoch();
+    }
+
     public int getThreadCountHoldingLocks() {
         return this.lockingHelper.getThreadCountHoldingLock();
     }
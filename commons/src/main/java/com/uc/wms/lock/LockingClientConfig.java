@@ -1,14 +1,33 @@
 package com.uc.wms.lock;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.jmx.JmxReporter;
+import com.uc.wms.aspect.locking.LockTimeouts;
+import com.uc.wms.aspect.locking.Namespace;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class LockingClientConfig {
 
-    @Value("${zookeeper.url}")
-    private String zookeeperUrl;
+    /* one or more ensembles separated by ';', the first one is the primary */
+    @Value("${zookeeper.urls:${zookeeper.url}}")
+    private String zookeeperUrls;
+
+    /* number of trailing ensembles in zookeeper.urls added with this deployment */
+    @Value("${zookeeper.lock.newShards:0}")
+    private int lockNewShards;
+
+    @Value("${zookeeper.lock.shardDrainSeconds:900}")
+    private long lockShardDrainSeconds;
 
     @Value("${zookeeper.sessionTimeout}")
     private int zookeeperSessionTimeout;
@@ -16,8 +35,119 @@ public class LockingClientConfig {
     @Value("${zookeeper.connectionTimeout}")
     private int zookeeperConnectionTimeout;
 
+    /* coalesce getLock locks per path in the JVM, see LockingClient#setLockCoalescing */
+    @Value("${zookeeper.lock.coalescing.enabled:false}")
+    private boolean lockCoalescingEnabled;
+
+    @Value("${zookeeper.lock.lingerMs:0}")
+    private long lockLingerMs;
+
+    @Value("${zookeeper.lock.maxHandoffs:" + CoalescingLockManager.DEFAULT_MAX_HANDOFFS + "}")
+    private int lockMaxHandoffs;
+
+    /* lock metrics are off unless enabled here, scrape them over JMX */
+    @Value("${zookeeper.lock.metrics.enabled:false}")
+    private boolean lockMetricsEnabled;
+
+    @Value("${zookeeper.lock.admission.enabled:false}")
+    private boolean lockAdmissionEnabled;
+
+    /* 0 disables deadlock detection, see LockingClient#setDeadlockDetection */
+    @Value("${zookeeper.lock.deadlockDetection.intervalMs:0}")
+    private long lockDeadlockDetectionIntervalMs;
+
+    /* pre-create namespace roots in the background, LockingClient#isReady() tells when done */
+    @Value("${zookeeper.lock.warmUp.enabled:false}")
+    private boolean lockWarmUpEnabled;
+
+    @Value("${zookeeper.lock.reaper.namespaces:}")
+    private String[] lockReaperNamespaces;
+
+    @Value("${zookeeper.lock.reaper.intervalMinutes:60}")
+    private long lockReaperIntervalMinutes;
+
+    @Value("${zookeeper.lock.reaper.minIdleMinutes:10}")
+    private long lockReaperMinIdleMinutes;
+
+    @Value("${zookeeper.lock.reaper.maxDeletesPerSecond:" + LockPathReaper.DEFAULT_MAX_DELETES_PER_SECOND + "}")
+    private int lockReaperMaxDeletesPerSecond;
+
     @Bean
     public LockingClient lockingClient() {
-        return new LockingClient(zookeeperUrl, zookeeperSessionTimeout, zookeeperConnectionTimeout);
+        LockMetrics.setEnabled(lockMetricsEnabled);
+        return newLockingClient(getEnsembles()[0]);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ShardedLockingClient shardedLockingClient(LockingClient lockingClient) {
+        String[] ensembles = getEnsembles();
+        List<LockingClient> shards = new ArrayList<>(ensembles.length);
+        shards.add(lockingClient);
+        for (int i = 1; i < ensembles.length; i++) {
+            shards.add(newLockingClient(ensembles[i]));
+        }
+        return new ShardedLockingClient(shards, lockNewShards, TimeUnit.SECONDS.toMillis(lockShardDrainSeconds));
+    }
+
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(name = "zookeeper.lock.metrics.enabled", havingValue = "true")
+    public JmxReporter lockMetricsReporter() {
+        JmxReporter reporter = JmxReporter.forRegistry(LockMetrics.getRegistry()).inDomain("com.uc.wms.lock").build();
+        reporter.start();
+        return reporter;
+    }
+
+    /* idle lock paths are only reaped when enabled here, for all namespaces unless listed */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "zookeeper.lock.reaper.enabled", havingValue = "true")
+    public LockPathReaper lockPathReaper(ShardedLockingClient shardedLockingClient) {
+        Set<Namespace> namespaces = EnumSet.noneOf(Namespace.class);
+        for (String namespace : lockReaperNamespaces) {
+            if (!namespace.trim().isEmpty()) {
+                namespaces.add(Namespace.valueOf(namespace.trim()));
+            }
+        }
+        LockPathReaper reaper = new LockPathReaper(shardedLockingClient, namespaces, TimeUnit.MINUTES.toMillis(lockReaperMinIdleMinutes), lockReaperMaxDeletesPerSecond);
+        reaper.start(TimeUnit.MINUTES.toMillis(lockReaperIntervalMinutes));
+        return reaper;
+    }
+
+    /* the registry getLock goes through, for locks built outside the locking service */
+    @Bean
+    public ReentrantLockRegistry reentrantLockRegistry(ShardedLockingClient shardedLockingClient) {
+        return shardedLockingClient.getReentrantLockRegistry();
+    }
+
+    /* owners of scheduled jobs, members only join a namespace once they ask about one of its keys */
+    @Bean(destroyMethod = "close")
+    public JobLeadership jobLeadership(LockingClient lockingClient) {
+        return new JobLeadership(lockingClient);
+    }
+
+    /* default wait timeouts of @Lock, per namespace and level */
+    @Bean
+    public LockTimeouts lockTimeouts(Environment environment) {
+        return new LockTimeouts(environment);
+    }
+
+    private LockingClient newLockingClient(String ensemble) {
+        LockingClient client = new LockingClient(ensemble, zookeeperSessionTimeout, zookeeperConnectionTimeout);
+        client.setAdmissionControl(lockAdmissionEnabled);
+        client.setLockCoalescing(lockCoalescingEnabled, lockLingerMs, lockMaxHandoffs);
+        client.setDeadlockDetection(lockDeadlockDetectionIntervalMs);
+        if (lockWarmUpEnabled) {
+            client.warmUp(zookeeperConnectionTimeout);
+        }
+        return client;
+    }
+
+    private String[] getEnsembles() {
+        List<String> ensembles = new ArrayList<>();
+        for (String ensemble : zookeeperUrls.split(ShardedLockingClient.ENSEMBLE_SEPARATOR)) {
+            if (!ensemble.trim().isEmpty()) {
+                ensembles.add(ensemble.trim());
+            }
+        }
+        return ensembles.toArray(new String[0]);
     }
 }
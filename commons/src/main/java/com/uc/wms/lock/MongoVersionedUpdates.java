@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Version-checked conditional updates for methods running under an {@link OptimisticLockPolicy}: the update applies
+ * only if the document still has the version that was read and bumps it, otherwise an
+ * {@link OptimisticLockingFailureException} makes the locking aspect retry the method. Saving an entity with a
+ * Spring Data {@code @Version} field through {@link MongoOperations#save(Object)} behaves the same way.
+ */
+public final class MongoVersionedUpdates {
+
+    public static final String DEFAULT_VERSION_FIELD = "version";
+
+    private MongoVersionedUpdates() {
+    }
+
+    public static <T> T update(MongoOperations mongoOperations, Class<T> type, Object id, long expectedVersion, Update update) {
+        return update(mongoOperations, type, id, DEFAULT_VERSION_FIELD, expectedVersion, update);
+    }
+
+    /**
+     * @param mongoOperations
+     * @param type
+     * @param id
+     * @param versionField
+     * @param expectedVersion version of the document when it was read
+     * @param update
+     * @return the updated document
+     * @throws OptimisticLockingFailureException if the document is gone or has another version
+     */
+    public static <T> T update(MongoOperations mongoOperations, Class<T> type, Object id, String versionField, long expectedVersion, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(id).and(versionField).is(expectedVersion));
+        T updated = mongoOperations.findAndModify(query, update.inc(versionField, 1), FindAndModifyOptions.options().returnNew(true), type);
+        if (updated == null) {
+            throw new OptimisticLockingFailureException("Version " + expectedVersion + " of " + type.getSimpleName() + " with id: " + id + " is stale or missing");
+        }
+        return updated;
+    }
+}
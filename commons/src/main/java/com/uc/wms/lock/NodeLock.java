@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.lock.exception.ConnectionInterruptedException;
+import com.uc.wms.lock.exception.DeadlockException;
+import com.uc.wms.lock.exception.LockingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Lock} over lock nodes managed by a subclass, with the connection interruption, event and metric semantics of
+ * {@link DistributedLock}. The section tells apart the locks a subclass takes on one path, e.g. the read and write
+ * sides of {@link SharedReadWriteLock}.
+ */
+abstract class NodeLock implements Lock {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NodeLock.class);
+
+    private final LockingClient client;
+    private final String        path;
+    private final String        section;
+    private long                lockTakenTime;
+
+    NodeLock(LockingClient client, String path, String section) {
+        this.client = client;
+        this.path = path;
+        this.section = section;
+    }
+
+    abstract boolean doAcquire(long time, TimeUnit unit) throws Exception;
+
+    abstract void doRelease();
+
+    @Override
+    public void lock() {
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Not acquiring lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
+            throw onFailure(new ConnectionInterruptedException("Not acquiring lock on path: " + path + ", section: " + section + " as zookeeper connection was recently suspended/lost"));
+        }
+        try {
+            acquire(-1, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while acquiring lock on on path: " + path + ", section:" + section, e);
+            throw onFailure(new LockingException(e));
+        }
+        if (!onLockAcquired()) {
+            throw onFailure(new ConnectionInterruptedException("Released lock as zookeeper connection was recently suspended/lost on path: " + path + ", section: " + section));
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Interrupted before acquiring lock on path: " + path + ", section: " + section);
+        }
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Not acquiring lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
+            throw onFailure(new ConnectionInterruptedException("Not acquiring lock on path: " + path + ", section: " + section + " as zookeeper connection was recently suspended/lost"));
+        }
+        acquire(-1, TimeUnit.NANOSECONDS);
+        if (!onLockAcquired()) {
+            throw onFailure(new ConnectionInterruptedException("Released lock as zookeeper connection was recently suspended/lost on path: " + path + ", section: " + section));
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        return tryLock(0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) {
+        if (client.isConnectionInterrupted()) {
+            LOG.error("Skipping to acquire lock on path: {}, section:{} as zookeeper connection was recently suspended/lost", path, section);
+            LockMetrics.onConnectionInterrupted(path);
+            return false;
+        }
+        try {
+            return acquire(time, unit) && onLockAcquired();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while acquiring lock on on path: " + path + ", section:" + section, e);
+            throw onFailure(new LockingException(e));
+        }
+    }
+
+    @Override
+    public void unlock() {
+        unlock(false);
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("conditions are not supported with distributed locks");
+    }
+
+    @Override
+    public String toString() {
+        return "LockPath: " + path + " (" + section + ")";
+    }
+
+    private boolean acquire(long time, TimeUnit unit) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Object event = LockEvents.beginAcquire();
+        boolean acquired;
+        try {
+            acquired = doAcquire(time, unit);
+        } catch (InterruptedException e) {
+            LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+            throw e;
+        } catch (IllegalMonitorStateException e) {
+            throw e;
+        } catch (DeadlockException e) {
+            LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+            LOG.warn(e.getMessage());
+            throw onFailure(e);
+        } catch (Exception e) {
+            LockEvents.failed(event, path, section, System.currentTimeMillis() - start, e);
+            LOG.error("Error while acquiring lock on on path: " + path + ", section:" + section, e);
+            throw onFailure(new LockingException(e));
+        }
+        if (!acquired) {
+            LockEvents.timedOut(event, path, section, System.currentTimeMillis() - start);
+            LOG.error("Unable to acquire lock on path: {}, section:{}", path, section);
+            LockMetrics.onTimeout(path);
+            return false;
+        }
+        lockTakenTime = System.currentTimeMillis();
+        LockEvents.acquired(event, path, section, lockTakenTime - start);
+        LockMetrics.onAcquired(path, section, lockTakenTime - start);
+        return true;
+    }
+
+    private LockingException onFailure(LockingException e) {
+        LockMetrics.onFailure(path, e);
+        return e;
+    }
+
+    /* checking if onLockAcquired executed successfully if not then releasing the lock */
+    private boolean onLockAcquired() {
+        boolean success = client.onLockAcquired(path);
+        if (!success) {
+            unlock(true);
+        }
+        return success;
+    }
+
+    private void unlock(boolean unlockForLockAcquiredOnInterruptedConnection) {
+        boolean released = true;
+        try {
+            long start = System.currentTimeMillis();
+            Object event = LockEvents.beginRelease();
+            doRelease();
+            LockEvents.released(event, path, section, start - lockTakenTime);
+            if (!unlockForLockAcquiredOnInterruptedConnection) {
+                LockMetrics.onReleased(path, section, start - lockTakenTime, System.currentTimeMillis() - start);
+            }
+        } catch (IllegalMonitorStateException e) {
+            // nothing was released
+            released = false;
+            throw e;
+        } catch (LockingException e) {
+            throw onFailure(e);
+        } finally {
+            // if onLockAcquired returns false it means it has nothing to do with onLockReleased
+            if (released && !unlockForLockAcquiredOnInterruptedConnection) {
+                client.onLockReleased(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optimistic mode of a namespace: {@code @Locks} methods on it run without the zookeeper lock and rely on the
+ * version-checked write of the document they guard, see {@link MongoVersionedUpdates}, being retried on an
+ * {@link org.springframework.dao.OptimisticLockingFailureException} after a jittered exponential backoff. The last
+ * attempt runs under the zookeeper lock. That excludes other last attempts and callers on a fallen back namespace, but
+ * not optimistic attempts elsewhere, which take no lock: the last attempt can conflict too, and its exception then
+ * reaches the caller. It counts like any attempt, so such contention soon makes the namespace fall back, and while
+ * fallen back every method runs under the lock and completes.
+ * <p>
+ * Conflicts are counted per window of {@code windowMs}. A window of at least {@code minSamples} attempts whose
+ * conflict rate exceeds {@code conflictRateThreshold} switches the namespace back to zookeeper locks for
+ * {@code fallbackMs}, after which it is tried optimistically again. Recording is lock-free.
+ */
+public class OptimisticLockPolicy {
+
+    private static final Logger LOG                             = LoggerFactory.getLogger(OptimisticLockPolicy.class);
+
+    public static final int     DEFAULT_MAX_ATTEMPTS            = 4;
+
+    public static final long    DEFAULT_BASE_BACKOFF_MS         = 5;
+
+    public static final long    DEFAULT_MAX_BACKOFF_MS          = 100;
+
+    public static final double  DEFAULT_CONFLICT_RATE_THRESHOLD = 0.1;
+
+    public static final int     DEFAULT_MIN_SAMPLES             = 50;
+
+    public static final long    DEFAULT_WINDOW_MS               = TimeUnit.MINUTES.toMillis(1);
+
+    public static final long    DEFAULT_FALLBACK_MS             = TimeUnit.MINUTES.toMillis(10);
+
+    private final String        name;
+
+    private final int           maxAttempts;
+
+    private final long          baseBackoffMs;
+
+    private final long          maxBackoffMs;
+
+    private final double        conflictRateThreshold;
+
+    private final int           minSamples;
+
+    private final long          windowMs;
+
+    private final long          fallbackMs;
+
+    private final LongAdder     attempts                        = new LongAdder();
+
+    private final LongAdder     conflicts                       = new LongAdder();
+
+    private final AtomicLong    windowStart                     = new AtomicLong(System.currentTimeMillis());
+
+    private volatile long       fallbackUntil;
+
+    public OptimisticLockPolicy(String name) {
+        this(name, DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF_MS, DEFAULT_MAX_BACKOFF_MS, DEFAULT_CONFLICT_RATE_THRESHOLD, DEFAULT_MIN_SAMPLES, DEFAULT_WINDOW_MS,
+                DEFAULT_FALLBACK_MS);
+    }
+
+    /**
+     * @param name for logs
+     * @param maxAttempts attempts of a method, including the last one under the zookeeper lock
+     * @param baseBackoffMs
+     * @param maxBackoffMs
+     * @param conflictRateThreshold conflicts per attempt above which the namespace falls back to zookeeper locks
+     * @param minSamples attempts a window needs before its conflict rate counts
+     * @param windowMs
+     * @param fallbackMs
+     */
+    public OptimisticLockPolicy(String name, int maxAttempts, long baseBackoffMs, long maxBackoffMs, double conflictRateThreshold, int minSamples, long windowMs,
+            long fallbackMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts should be at least 1, found: " + maxAttempts);
+        }
+        this.name = name;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.conflictRateThreshold = conflictRateThreshold;
+        this.minSamples = minSamples;
+        this.windowMs = windowMs;
+        this.fallbackMs = fallbackMs;
+    }
+
+    /**
+     * @return false while fallen back to zookeeper locks
+     */
+    public boolean isActive() {
+        return fallbackUntil == 0 || System.currentTimeMillis() >= fallbackUntil;
+    }
+
+    public boolean isLastAttempt(int attempt) {
+        return attempt >= maxAttempts;
+    }
+
+    /**
+     * Sleeps before attempt {@code attempt + 1}, a random time up to {@code baseBackoffMs * 2^(attempt - 1)}, capped at
+     * {@code maxBackoffMs}.
+     *
+     * @param attempt 1 based number of the attempt that conflicted
+     * @throws InterruptedException
+     */
+    public void backoff(int attempt) throws InterruptedException {
+        long bound = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        if (bound > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        }
+    }
+
+    /**
+     * @param conflicted whether the attempt ended in a version conflict
+     */
+    public void onAttempt(boolean conflicted) {
+        attempts.increment();
+        if (conflicted) {
+            conflicts.increment();
+        }
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= windowMs && windowStart.compareAndSet(start, now)) {
+            // attempts racing the roll over land in either window, which is fine for a rate
+            long windowAttempts = attempts.sumThenReset();
+            long windowConflicts = conflicts.sumThenReset();
+            if (windowAttempts >= minSamples && windowConflicts > conflictRateThreshold * windowAttempts) {
+                fallbackUntil = now + fallbackMs;
+                LOG.warn("Falling back to zookeeper locks for {} for {} ms, {} conflicts in {} optimistic attempts", name, fallbackMs, windowConflicts, windowAttempts);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OptimisticLockPolicy [" + name + ", active: " + isActive() + "]";
+    }
+}
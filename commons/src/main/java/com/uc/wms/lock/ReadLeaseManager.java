@@ -0,0 +1,287 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read/write locks whose readers in one JVM share a single zookeeper read node per path: the first reader creates it,
+ * the last one deletes it, readers in between only bump a count. Remote writers are excluded by that node exactly as
+ * by per-thread read nodes, the node follows the {@code InterProcessReadWriteLock} protocol.
+ * <p>
+ * Local writers have priority: while one waits no new local reader joins the lease, so the lease drains and the
+ * writer's node, queued behind it in zookeeper, gets the lock. Threads already reading may read again. A lease taken
+ * before the zookeeper connection was suspended/lost is not joined either, new readers wait for it to drain and take
+ * a fresh one.
+ * <p>
+ * The thread holding the write lock of a path reads it without a read node, which would queue behind its own write
+ * node: such reads are granted locally and must be released before the write lock, there is no downgrade. Upgrading a
+ * read to a write would deadlock likewise and is rejected with an {@link IllegalMonitorStateException}.
+ */
+class ReadLeaseManager {
+
+    private final LockingClient                  client;
+
+    private final ConcurrentMap<String, Lease>   leases    = new ConcurrentHashMap<>();
+
+    /* read holds of the current thread, for reentrant reads past waiting writers */
+    private final ThreadLocal<Map<Lease, int[]>> readHolds = ThreadLocal.withInitial(HashMap::new);
+
+    ReadLeaseManager(LockingClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param time negative to wait forever
+     * @return false on timeout
+     */
+    boolean acquireRead(String path, byte[] lockData, long time, TimeUnit unit) throws Exception {
+        Lease lease = join(path, lockData);
+        boolean acquired = false;
+        try {
+            Map<Lease, int[]> holds = readHolds.get();
+            int[] held = holds.get(lease);
+            if (lease.readUnderWrite()) {
+                if (held != null) {
+                    held[0]++;
+                } else {
+                    holds.put(lease, new int[] { 1 });
+                }
+                acquired = true;
+            } else if (held != null) {
+                lease.reenter();
+                held[0]++;
+                acquired = true;
+            } else {
+                acquired = lease.acquireRead(System.nanoTime(), time < 0 ? -1 : unit.toNanos(time));
+                if (acquired) {
+                    holds.put(lease, new int[] { 1 });
+                }
+            }
+        } finally {
+            if (!acquired) {
+                leave(lease);
+            }
+        }
+        return acquired;
+    }
+
+    void releaseRead(String path) {
+        Lease lease = leases.get(path);
+        Map<Lease, int[]> holds = readHolds.get();
+        int[] held = lease == null ? null : holds.get(lease);
+        if (held == null) {
+            throw new IllegalMonitorStateException("Read lock on path: " + path + " is not held by the current thread");
+        }
+        if (--held[0] == 0) {
+            holds.remove(lease);
+        }
+        try {
+            if (!lease.releaseReadUnderWrite()) {
+                lease.releaseRead();
+            }
+        } finally {
+            leave(lease);
+        }
+    }
+
+    /**
+     * @param time negative to wait forever
+     * @return the owned write node, or null on timeout
+     */
+    String acquireWrite(String path, byte[] lockData, long time, TimeUnit unit) throws Exception {
+        Lease lease = join(path, lockData);
+        String node = null;
+        try {
+            if (readHolds.get().containsKey(lease)) {
+                throw new IllegalMonitorStateException("Write lock on path: " + path + " can not be taken while the current thread reads it");
+            }
+            synchronized (lease) {
+                if (lease.writer == Thread.currentThread()) {
+                    throw new IllegalMonitorStateException("Write lock on path: " + path + " is already held by the current thread");
+                }
+                lease.waitingWriters++;
+            }
+            try {
+                node = lease.writeMutex.acquire(time, unit);
+            } finally {
+                synchronized (lease) {
+                    lease.waitingWriters--;
+                    if (node != null) {
+                        lease.writer = Thread.currentThread();
+                    }
+                    lease.notifyAll();
+                }
+            }
+            return node;
+        } finally {
+            if (node == null) {
+                leave(lease);
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalMonitorStateException if the current thread still holds reads taken under the write lock
+     */
+    void checkWriteRelease(String path) {
+        Lease lease = leases.get(path);
+        if (lease != null && readHolds.get().containsKey(lease)) {
+            throw new IllegalMonitorStateException("Read locks on path: " + path + " taken under its write lock must be released first");
+        }
+    }
+
+    void releaseWrite(String path, String node) {
+        // the lease is kept while its write lock is held
+        Lease lease = leases.get(path);
+        synchronized (lease) {
+            lease.writer = null;
+        }
+        try {
+            lease.writeMutex.release(node);
+        } finally {
+            leave(lease);
+        }
+    }
+
+    int getActivePathCount() {
+        return leases.size();
+    }
+
+    private Lease join(String path, byte[] lockData) {
+        return leases.compute(path, (p, lease) -> {
+            Lease joined = lease == null ? new Lease(p, lockData) : lease;
+            joined.users++;
+            return joined;
+        });
+    }
+
+    private void leave(Lease lease) {
+        leases.computeIfPresent(lease.path, (p, current) -> {
+            if (current == lease && --current.users == 0) {
+                return null;
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Local state of one path, guarded by its monitor. {@code users} is guarded by the leases map.
+     */
+    private final class Lease {
+        private final String           path;
+
+        private final DistributedMutex readMutex;
+
+        private final DistributedMutex writeMutex;
+
+        private int                    readers;
+
+        private String                 readNode;
+
+        private long                   epoch;
+
+        private boolean                acquiring;
+
+        private int                    waitingWriters;
+
+        /* thread holding the write lock, if taken through this manager */
+        private Thread                 writer;
+
+        private int                    readsUnderWrite;
+
+        private int                    users;
+
+        Lease(String path, byte[] lockData) {
+            this.path = path;
+            this.readMutex = new DistributedMutex(client, path, lockData, DistributedMutex.READ_LOCK_NAME, true);
+            this.writeMutex = new DistributedMutex(client, path, lockData, DistributedMutex.WRITE_LOCK_NAME, false);
+        }
+
+        synchronized void reenter() {
+            readers++;
+        }
+
+        synchronized boolean readUnderWrite() {
+            if (writer != Thread.currentThread()) {
+                return false;
+            }
+            readsUnderWrite++;
+            return true;
+        }
+
+        synchronized boolean releaseReadUnderWrite() {
+            if (readsUnderWrite == 0 || writer != Thread.currentThread()) {
+                return false;
+            }
+            readsUnderWrite--;
+            return true;
+        }
+
+        /**
+         * @param waitNanos negative to wait forever
+         */
+        boolean acquireRead(long startNanos, long waitNanos) throws Exception {
+            synchronized (this) {
+                while (true) {
+                    if (waitingWriters == 0 && !acquiring) {
+                        if (readers == 0) {
+                            acquiring = true;
+                            break;
+                        }
+                        if (epoch == client.getConnectionEpoch()) {
+                            readers++;
+                            return true;
+                        }
+                    }
+                    if (waitNanos < 0) {
+                        wait();
+                    } else {
+                        long remaining = waitNanos - (System.nanoTime() - startNanos);
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                }
+            }
+            long acquiredEpoch = client.getConnectionEpoch();
+            String node = null;
+            try {
+                node = readMutex.acquire(waitNanos < 0 ? -1 : Math.max(0, waitNanos - (System.nanoTime() - startNanos)), TimeUnit.NANOSECONDS);
+            } finally {
+                synchronized (this) {
+                    acquiring = false;
+                    if (node != null) {
+                        readNode = node;
+                        readers = 1;
+                        epoch = acquiredEpoch;
+                    }
+                    notifyAll();
+                }
+            }
+            return node != null;
+        }
+
+        void releaseRead() {
+            String node = null;
+            synchronized (this) {
+                if (--readers == 0) {
+                    node = readNode;
+                    readNode = null;
+                    notifyAll();
+                }
+            }
+            readMutex.release(node);
+        }
+    }
+}
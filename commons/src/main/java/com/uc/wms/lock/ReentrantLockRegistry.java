@@ -0,0 +1,316 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+import com.uc.wms.lock.exception.ConnectionInterruptedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Makes lock paths reentrant per thread across lock instances. The first acquisition of a path on a thread goes to
+ * the distributed lock built by the factory, nested acquisitions of the same path on that thread only bump a hold
+ * count and the distributed lock is released when the last hold goes away. A lock over several paths, e.g. a multi
+ * lock, only builds its distributed lock over the paths the thread does not hold yet and releases it once none of
+ * those paths is held any more.
+ * <p>
+ * Nested acquisitions are registered with the {@link DistributedLockingHelper} of every ensemble the path was locked
+ * on, as per {@link ShardedLockingClient}, and are refused once the zookeeper connection was suspended/lost for the
+ * thread, exactly like a fresh {@link DistributedLock}.
+ */
+public class ReentrantLockRegistry {
+
+    private static final Logger                  LOG   = LoggerFactory.getLogger(ReentrantLockRegistry.class);
+
+    private final ShardedLockingClient           clients;
+
+    private final ThreadLocal<Map<String, Hold>> holds = new ThreadLocal<>();
+
+    public ReentrantLockRegistry(ShardedLockingClient clients) {
+        this.clients = clients;
+    }
+
+    /**
+     * @param path
+     * @param lockFactory builds the distributed lock for the path, only called for the outermost acquisition
+     * @return
+     */
+    public Lock getLock(String path, Function<String, Lock> lockFactory) {
+        return new RegisteredLock(Collections.singletonList(path), free -> lockFactory.apply(path));
+    }
+
+    /**
+     * @param paths
+     * @param lockFactory builds the distributed lock over the paths not yet held by the acquiring thread, only called
+     *            if there are any
+     * @return lock over all the paths
+     */
+    public Lock getLock(Collection<String> paths, Function<List<String>, Lock> lockFactory) {
+        return new RegisteredLock(new ArrayList<>(new LinkedHashSet<>(paths)), lockFactory);
+    }
+
+    /**
+     * @param path
+     * @return number of holds the current thread has on the path
+     */
+    public int getHoldCount(String path) {
+        Hold hold = getHold(path);
+        return hold == null ? 0 : hold.count;
+    }
+
+    private Hold getHold(String path) {
+        Map<String, Hold> threadHolds = holds.get();
+        return threadHolds == null ? null : threadHolds.get(path);
+    }
+
+    private void putHold(String path, Hold hold) {
+        Map<String, Hold> threadHolds = holds.get();
+        if (threadHolds == null) {
+            threadHolds = new HashMap<>(4);
+            holds.set(threadHolds);
+        }
+        threadHolds.put(path, hold);
+    }
+
+    private void removeHold(String path) {
+        Map<String, Hold> threadHolds = holds.get();
+        if (threadHolds != null) {
+            threadHolds.remove(path);
+            if (threadHolds.isEmpty()) {
+                holds.remove();
+            }
+        }
+    }
+
+    /* distributed lock shared by the holds of the paths it was built over */
+    private static final class HeldLock {
+        private final Lock lock;
+        private int        paths;
+
+        HeldLock(Lock lock, int paths) {
+            this.lock = lock;
+            this.paths = paths;
+        }
+    }
+
+    private static final class Hold {
+        private final HeldLock            heldLock;
+        /* ensembles the path was locked on, nested holds register with the same ones */
+        private final List<LockingClient> clients;
+        private int                       count = 1;
+
+        Hold(HeldLock heldLock, List<LockingClient> clients) {
+            this.heldLock = heldLock;
+            this.clients = clients;
+        }
+    }
+
+    private final class RegisteredLock implements Lock {
+
+        private final List<String>                 paths;
+
+        private final Function<List<String>, Lock> lockFactory;
+
+        private boolean                            held;
+
+        RegisteredLock(List<String> paths, Function<List<String>, Lock> lockFactory) {
+            this.paths = paths;
+            this.lockFactory = lockFactory;
+        }
+
+        @Override
+        public void lock() {
+            List<String> free = reenterHeldPaths();
+            if (!free.isEmpty()) {
+                Lock lock = lockFactory.apply(free);
+                try {
+                    lock.lock();
+                } catch (RuntimeException e) {
+                    exitHeldPaths();
+                    throw e;
+                }
+                register(free, lock);
+            }
+            held = true;
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            List<String> free = reenterHeldPaths();
+            if (!free.isEmpty()) {
+                Lock lock = lockFactory.apply(free);
+                try {
+                    lock.lockInterruptibly();
+                } catch (InterruptedException | RuntimeException e) {
+                    exitHeldPaths();
+                    throw e;
+                }
+                register(free, lock);
+            }
+            held = true;
+        }
+
+        @Override
+        public boolean tryLock() {
+            return tryLock(0, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            List<String> free;
+            try {
+                free = reenterHeldPaths();
+            } catch (ConnectionInterruptedException e) {
+                return false;
+            }
+            if (!free.isEmpty()) {
+                Lock lock = lockFactory.apply(free);
+                boolean acquired;
+                try {
+                    acquired = lock.tryLock(time, unit);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    acquired = false;
+                } catch (RuntimeException e) {
+                    exitHeldPaths();
+                    throw e;
+                }
+                if (!acquired) {
+                    exitHeldPaths();
+                    return false;
+                }
+                register(free, lock);
+            }
+            held = true;
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            if (!held) {
+                throw new IllegalMonitorStateException("Lock on path: " + getPath() + " is not held by this instance");
+            }
+            for (String path : paths) {
+                if (getHold(path) == null) {
+                    throw new IllegalMonitorStateException("Lock on path: " + path + " is not held by current thread");
+                }
+            }
+            held = false;
+            RuntimeException failure = null;
+            for (String path : paths) {
+                try {
+                    release(path, getHold(path));
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("not supported with ReentrantLockRegistry");
+        }
+
+        @Override
+        public String toString() {
+            return "LockPath: " + getPath();
+        }
+
+        private String getPath() {
+            return paths.size() == 1 ? paths.get(0) : paths.toString();
+        }
+
+        /* bumps the holds of the paths the thread already holds, returns the others */
+        private List<String> reenterHeldPaths() {
+            if (held) {
+                throw new IllegalMonitorStateException("Lock on path: " + getPath() + " is already held by this instance");
+            }
+            List<String> free = new ArrayList<>(paths.size());
+            for (String path : paths) {
+                Hold hold = getHold(path);
+                if (hold == null) {
+                    free.add(path);
+                } else if (!reenter(path, hold)) {
+                    exitHeldPaths(path);
+                    throw new ConnectionInterruptedException("Not re-acquiring lock on path: " + path + " as zookeeper connection was recently suspended/lost");
+                }
+            }
+            return free;
+        }
+
+        /* undoes reenterHeldPaths when the lock over the free paths could not be taken */
+        private void exitHeldPaths() {
+            exitHeldPaths(null);
+        }
+
+        /* releases the nested holds taken before the given path, all of them if null */
+        private void exitHeldPaths(String until) {
+            for (String path : paths) {
+                if (path.equals(until)) {
+                    return;
+                }
+                Hold hold = getHold(path);
+                if (hold != null) {
+                    release(path, hold);
+                }
+            }
+        }
+
+        private void register(List<String> free, Lock lock) {
+            HeldLock heldLock = new HeldLock(lock, free.size());
+            for (String path : free) {
+                putHold(path, new Hold(heldLock, clients.getClients(path)));
+            }
+        }
+
+        /* nested holds are registered with the locking helper like any acquisition so interruption applies to them */
+        private boolean reenter(String path, Hold hold) {
+            for (int i = 0; i < hold.clients.size(); i++) {
+                LockingClient client = hold.clients.get(i);
+                if (client.isConnectionInterrupted() || !client.onLockAcquired(path)) {
+                    for (int j = 0; j < i; j++) {
+                        hold.clients.get(j).onLockReleased(path);
+                    }
+                    LOG.error("Not re-acquiring lock on path: {} as zookeeper connection was recently suspended/lost", path);
+                    return false;
+                }
+            }
+            hold.count++;
+            return true;
+        }
+
+        private void release(String path, Hold hold) {
+            if (--hold.count > 0) {
+                for (LockingClient client : hold.clients) {
+                    client.onLockReleased(path);
+                }
+                return;
+            }
+            removeHold(path);
+            if (--hold.heldLock.paths == 0) {
+                hold.heldLock.lock.unlock();
+            }
+        }
+    }
+}
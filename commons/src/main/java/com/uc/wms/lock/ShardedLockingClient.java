@@ -0,0 +1,263 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import com.uc.wms.annotation.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Spreads lock paths over several zookeeper ensembles, one {@link LockingClient} each, by consistent hashing of the
+ * scope of the path: the tenant for TENANT locks, tenant and facility for FACILITY locks and the namespace for GLOBAL
+ * locks. All locks of a tenant/facility hence live on one ensemble.
+ * <p>
+ * Adding an ensemble moves the scopes that now hash to it. For a drain period after that, which has to cover both the
+ * longest lock hold and the rollout of the new configuration to every application node, such paths are locked on the
+ * former and the new ensemble, so they exclude holders that only know either.
+ */
+public class ShardedLockingClient {
+
+    private static final Logger                     LOG                   = LoggerFactory.getLogger(ShardedLockingClient.class);
+
+    /* separates ensembles, the connect string of an ensemble already uses ',' */
+    public static final String                      ENSEMBLE_SEPARATOR    = ";";
+
+    private static final int                        VIRTUAL_NODES         = 160;
+
+    private static final Comparator<LockingClient>  LOCK_ORDER            = Comparator.comparing(LockingClient::getDestination);
+
+    private final List<LockingClient>               shards                = new CopyOnWriteArrayList<>();
+
+    private volatile Ring                           ring;
+
+    private volatile Ring                           draining;
+
+    private final ReentrantLockRegistry             reentrantLockRegistry = new ReentrantLockRegistry(this);
+
+    public ShardedLockingClient(LockingClient shard) {
+        this(Collections.singletonList(shard), 0, 0);
+    }
+
+    /**
+     * @param shards one client per ensemble, the first one is the primary
+     * @param newShards number of trailing shards that were added with this deployment, paths moving to them are
+     *            locked on both ensembles for {@code drainMillis}
+     * @param drainMillis
+     */
+    public ShardedLockingClient(List<LockingClient> shards, int newShards, long drainMillis) {
+        if (shards.isEmpty() || newShards < 0 || newShards >= shards.size()) {
+            throw new IllegalArgumentException("Need at least one ensemble that is not new, shards: " + shards.size() + ", newShards: " + newShards);
+        }
+        this.shards.addAll(shards);
+        this.ring = new Ring(this.shards);
+        if (newShards > 0) {
+            startDraining(new Ring(this.shards.subList(0, this.shards.size() - newShards)), drainMillis);
+        }
+        LOG.info("Sharding locks over {} zookeeper ensemble(s), draining: {}", this.shards.size(), draining != null);
+    }
+
+    /**
+     * Adds an ensemble at runtime, see the class documentation for the drain period.
+     *
+     * @param shard
+     * @param drainMillis
+     */
+    public synchronized void addShard(LockingClient shard, long drainMillis) {
+        if (draining != null) {
+            throw new IllegalStateException("Can not add ensemble: " + shard.getDestination() + " while the previous addition is still draining");
+        }
+        Ring previous = ring;
+        shards.add(shard);
+        ring = new Ring(shards);
+        startDraining(previous, drainMillis);
+        LOG.info("Added zookeeper ensemble: {}, draining for {} ms", shard.getDestination(), drainMillis);
+    }
+
+    public LockingClient getPrimary() {
+        return shards.get(0);
+    }
+
+    public List<LockingClient> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    /* holds of the lock paths of every ensemble, per thread */
+    public ReentrantLockRegistry getReentrantLockRegistry() {
+        return reentrantLockRegistry;
+    }
+
+    public boolean isDraining() {
+        return draining != null;
+    }
+
+    /**
+     * @param path
+     * @return client of the ensemble owning the path
+     */
+    public LockingClient getClient(String path) {
+        return ring.get(hashScope(path));
+    }
+
+    /**
+     * @param path
+     * @return clients of every ensemble the path has to be locked on, in the order to lock them in. One client unless
+     *         the path moved to another ensemble and is still draining.
+     */
+    public List<LockingClient> getClients(String path) {
+        long hash = hashScope(path);
+        LockingClient owner = ring.get(hash);
+        Ring previous = draining;
+        LockingClient former = previous == null ? owner : previous.get(hash);
+        if (former == owner) {
+            return Collections.singletonList(owner);
+        }
+        return LOCK_ORDER.compare(former, owner) < 0 ? Arrays.asList(former, owner) : Arrays.asList(owner, former);
+    }
+
+    /**
+     * @param paths
+     * @return paths grouped by the client of every ensemble they have to be locked on, in the order to lock them in
+     */
+    public Map<LockingClient, List<String>> groupByClient(Iterable<String> paths) {
+        Map<LockingClient, List<String>> groups = new TreeMap<>(LOCK_ORDER);
+        for (String path : paths) {
+            for (LockingClient client : getClients(path)) {
+                groups.computeIfAbsent(client, c -> new ArrayList<>()).add(path);
+            }
+        }
+        return groups;
+    }
+
+    /* every ensemble is ready, see LockingClient#isReady() */
+    public boolean isReady() {
+        for (LockingClient shard : shards) {
+            if (!shard.isReady()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* true if the zookeeper connection of any ensemble was suspended/lost since the current thread took its locks */
+    public boolean isConnectionInterrupted() {
+        for (LockingClient shard : shards) {
+            if (shard.isConnectionInterrupted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Closes every ensemble but the primary, which belongs to whoever created it.
+     */
+    public void close() {
+        for (int i = 1; i < shards.size(); i++) {
+            shards.get(i).close();
+        }
+    }
+
+    private void startDraining(Ring previous, long drainMillis) {
+        draining = previous;
+        getPrimary().getScheduler().schedule(() -> {
+            synchronized (this) {
+                if (draining == previous) {
+                    draining = null;
+                    LOG.info("Done draining lock paths moved across zookeeper ensembles");
+                }
+            }
+        }, drainMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /* hash of the tenant, tenant/facility or namespace segment(s) of a LockPaths path, of the whole path otherwise */
+    static long hashScope(String path) {
+        int first = 2;
+        int last = 2;
+        if (path.startsWith(Level.GLOBAL.name(), 1)) {
+            first = last = 1;
+        } else if (path.startsWith(Level.FACILITY.name(), 1)) {
+            last = 3;
+        }
+        int segment = -1;
+        int start = -1;
+        int end = path.length();
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == LockPaths.SEPARATOR) {
+                segment++;
+                if (segment == first) {
+                    start = i + 1;
+                } else if (segment == last + 1) {
+                    end = i;
+                    break;
+                }
+            }
+        }
+        return start < 0 ? hash(path, 0, path.length()) : hash(path, start, end);
+    }
+
+    /* FNV-1a spread with the murmur3 finalizer, stable across JVMs unlike identity based hashes */
+    static long hash(CharSequence value, int start, int end) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Immutable hash ring with {@value #VIRTUAL_NODES} points per ensemble, placed by its connect string so that every
+     * application node builds the same ring whatever the order of its configuration.
+     */
+    private static final class Ring {
+        private final long[]          points;
+        private final LockingClient[] owners;
+
+        Ring(List<LockingClient> shards) {
+            List<LockingClient> ordered = new ArrayList<>(shards);
+            ordered.sort(LOCK_ORDER);
+            TreeMap<Long, LockingClient> ring = new TreeMap<>();
+            for (LockingClient shard : ordered) {
+                for (int i = 0; i < VIRTUAL_NODES; i++) {
+                    String point = shard.getDestination() + '#' + i;
+                    ring.putIfAbsent(hash(point, 0, point.length()), shard);
+                }
+            }
+            points = new long[ring.size()];
+            owners = new LockingClient[ring.size()];
+            int i = 0;
+            for (Map.Entry<Long, LockingClient> entry : ring.entrySet()) {
+                points[i] = entry.getKey();
+                owners[i++] = entry.getValue();
+            }
+        }
+
+        LockingClient get(long hash) {
+            int i = Arrays.binarySearch(points, hash);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return owners[i == points.length ? 0 : i];
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * {@link ReadWriteLock} alternative to {@link DistributedReadWriteLock} for read heavy paths: readers of the JVM share
+ * one zookeeper read node and local writers go first, see {@link ReadLeaseManager}. Interoperates with
+ * {@link DistributedReadWriteLock} on other nodes. Neither side is reentrant for writes, reads are. The writing thread
+ * may read under its write lock, see {@link ReadLeaseManager} for the rules.
+ */
+public class SharedReadWriteLock implements ReadWriteLock {
+
+    private final Lock readLock;
+
+    private final Lock writeLock;
+
+    public SharedReadWriteLock(LockingClient client, String path) {
+        this(client, path, null);
+    }
+
+    public SharedReadWriteLock(LockingClient client, String path, String lockData) {
+        byte[] data = StringUtils.isBlank(lockData) ? null : lockData.getBytes(StandardCharsets.UTF_8);
+        ReadLeaseManager manager = client.getReadLeaseManager();
+        this.readLock = new NodeLock(client, path, "read") {
+            @Override
+            boolean doAcquire(long time, TimeUnit unit) throws Exception {
+                return manager.acquireRead(path, data, time, unit);
+            }
+
+            @Override
+            void doRelease() {
+                manager.releaseRead(path);
+            }
+        };
+        this.writeLock = new NodeLock(client, path, "write") {
+            private String node;
+
+            @Override
+            boolean doAcquire(long time, TimeUnit unit) throws Exception {
+                if (node != null) {
+                    throw new IllegalMonitorStateException("Write lock on path: " + path + " is already held by this instance");
+                }
+                node = manager.acquireWrite(path, data, time, unit);
+                return node != null;
+            }
+
+            @Override
+            void doRelease() {
+                manager.checkWriteRelease(path);
+                String held = node;
+                node = null;
+                manager.releaseWrite(path, held);
+            }
+        };
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock.exception;
+
+import java.util.List;
+
+/**
+ * Lock wait aborted as its thread was chosen the victim of a deadlock between lock holders, see deadlock detection
+ * of {@link com.uc.wms.lock.LockingClient}. Its lock node is deleted, so the other members of the cycle go on.
+ */
+public class DeadlockException extends LockingException {
+
+    private static final long  serialVersionUID = -4021579386338907152L;
+
+    private final List<String> cycle;
+
+    public DeadlockException(String message, List<String> cycle) {
+        super(message);
+        this.cycle = cycle;
+    }
+
+    /**
+     * @return the waits of the cycle as {@code <owner> -> <lock path>}, starting with the victim
+     */
+    public List<String> getCycle() {
+        return cycle;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock.exception;
+
+/**
+ * Lock not even waited for as the queue ahead of it would outlast the wait time, see admission control of
+ * {@link com.uc.wms.lock.LockingClient}.
+ */
+public class LockRejectedException extends LockingException {
+
+    private static final long serialVersionUID = 2411795132651418203L;
+
+    private final long        estimatedWaitMs;
+
+    public LockRejectedException(String message, long estimatedWaitMs) {
+        super(message);
+        this.estimatedWaitMs = estimatedWaitMs;
+    }
+
+    public long getEstimatedWaitMs() {
+        return estimatedWaitMs;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder events of {@link LockEvents}. Only loaded once {@link LockEvents} has found {@code jdk.jfr}, which
+ * is why nothing outside this class refers to the event types. Built with the {@code jfr} profile into the Java 11
+ * layer of the multi-release jar, Java 8 runtimes load the no-op class of {@code src/main/java} instead.
+ */
+final class LockFlightRecorder {
+
+    private LockFlightRecorder() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static Object beginAcquire() {
+        LockAcquireEvent event = new LockAcquireEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commitAcquire(Object event, String path, String section, LockEvents.Type outcome) {
+        LockAcquireEvent acquire = (LockAcquireEvent) event;
+        if (acquire.shouldCommit()) {
+            acquire.path = path;
+            acquire.section = section;
+            acquire.outcome = outcome.name();
+            acquire.commit();
+        }
+    }
+
+    static Object beginRelease() {
+        LockReleaseEvent event = new LockReleaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commitRelease(Object event, String path, String section, long holdMs) {
+        LockReleaseEvent release = (LockReleaseEvent) event;
+        if (release.shouldCommit()) {
+            release.path = path;
+            release.section = section;
+            release.holdTime = holdMs;
+            release.commit();
+        }
+    }
+
+    static Object beginWait() {
+        LockWaitEvent event = new LockWaitEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commitWait(Object event, Namespace namespace, Level level, Object key, String method, boolean acquired) {
+        LockWaitEvent wait = (LockWaitEvent) event;
+        if (wait.shouldCommit()) {
+            wait.namespace = namespace.name();
+            wait.level = level.name();
+            wait.key = String.valueOf(key);
+            wait.method = method;
+            wait.acquired = acquired;
+            wait.commit();
+        }
+    }
+
+    static void commitConnectionStateChange(String state, long connectionEpoch) {
+        ZkConnectionStateChangeEvent event = new ZkConnectionStateChangeEvent();
+        if (event.shouldCommit()) {
+            event.state = state;
+            event.connectionEpoch = connectionEpoch;
+            event.commit();
+        }
+    }
+
+    @Name("com.uc.wms.lock.LockAcquire")
+    @Label("Lock Acquire")
+    @Category({ "WMS", "Locking" })
+    @Description("Acquisition of a zookeeper lock, from the first attempt to the outcome")
+    static final class LockAcquireEvent extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Section")
+        String section;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("com.uc.wms.lock.LockWait")
+    @Label("Lock Wait")
+    @Category({ "WMS", "Locking" })
+    @Description("Time a @Locks annotated method waited for its locks")
+    static final class LockWaitEvent extends Event {
+        @Label("Namespace")
+        String  namespace;
+
+        @Label("Level")
+        String  level;
+
+        @Label("Key")
+        String  key;
+
+        @Label("Method")
+        String  method;
+
+        @Label("Acquired")
+        boolean acquired;
+    }
+
+    @Name("com.uc.wms.lock.LockRelease")
+    @Label("Lock Release")
+    @Category({ "WMS", "Locking" })
+    @Description("Release of a zookeeper lock")
+    @StackTrace(false)
+    static final class LockReleaseEvent extends Event {
+        @Label("Path")
+        String path;
+
+        @Label("Section")
+        String section;
+
+        @Label("Hold Time (ms)")
+        long   holdTime;
+    }
+
+    @Name("com.uc.wms.lock.ZkConnectionStateChange")
+    @Label("Zookeeper Connection State Change")
+    @Category({ "WMS", "Locking" })
+    @StackTrace(false)
+    static final class ZkConnectionStateChangeEvent extends Event {
+        @Label("State")
+        String state;
+
+        @Label("Connection Epoch")
+        long   connectionEpoch;
+    }
+}
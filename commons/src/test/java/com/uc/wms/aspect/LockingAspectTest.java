@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.annotation.Locks;
+import com.uc.wms.aspect.locking.ILockingService;
+import com.uc.wms.aspect.locking.Namespace;
+import com.uc.wms.lock.LockEscalation;
+import com.uc.wms.lock.LockMode;
+import com.uc.wms.lock.OptimisticLockPolicy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LockingAspectTest {
+
+    private LockingAspect   aspect;
+
+    private ILockingService lockingService;
+
+    private Lock            lock;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new LockingAspect();
+        lockingService = mock(ILockingService.class);
+        lock = mock(Lock.class);
+        ReflectionTestUtils.setField(aspect, "lockingService", lockingService);
+        when(lockingService.getMultiLock(anyList(), anyString())).thenReturn(lock);
+        when(lockingService.getLock(eq(Namespace.ITEM_TYPE), anyString(), any(Level.class), anyString())).thenReturn(lock);
+        when(lockingService.getPermits(any())).thenReturn(1);
+    }
+
+    @Test
+    void togetherWaitsForeverIfAnyLockDoes() throws Throwable {
+        assertThat(execute("foreverAndFiveSeconds")).isEqualTo("done");
+        verify(lock).lock();
+        verify(lock, never()).tryLock(anyLong(), any());
+        verify(lock).unlock();
+    }
+
+    @Test
+    void togetherWaitsForLongestTimeout() throws Throwable {
+        when(lock.tryLock(10, TimeUnit.SECONDS)).thenReturn(true);
+        assertThat(execute("fiveAndTenSeconds")).isEqualTo("done");
+        verify(lock).tryLock(10, TimeUnit.SECONDS);
+        verify(lock, never()).lock();
+        verify(lock).unlock();
+    }
+
+    @Test
+    void escalatedNamespaceLocksKeysTogether() throws Throwable {
+        when(lockingService.getLockEscalation(Namespace.SALE_ORDER)).thenReturn(new LockEscalation(1, 4));
+        when(lock.tryLock(5, TimeUnit.SECONDS)).thenReturn(true);
+        assertThat(execute("oneAfterAnother")).isEqualTo("done");
+        verify(lockingService).getMultiLock(anyList(), anyString());
+        verify(lockingService, never()).getLock(any(), anyString(), any(), anyString());
+        verify(lock).unlock();
+    }
+
+    @Test
+    void semaphoresTakePermitsOfAnnotationOrNamespace() throws Throwable {
+        when(lockingService.getPermits(Namespace.SALE_ORDER)).thenReturn(3);
+        when(lockingService.getSemaphore(any(), anyString(), any(), anyInt(), anyString())).thenReturn(lock);
+        when(lock.tryLock(5, TimeUnit.SECONDS)).thenReturn(true);
+        assertThat(execute("semaphores")).isEqualTo("done");
+        verify(lockingService).getSemaphore(Namespace.SALE_ORDER, "SO1", Level.TENANT, 3, "semaphores");
+        verify(lockingService).getSemaphore(Namespace.SALE_ORDER, "SO2", Level.TENANT, 2, "semaphores");
+        verify(lockingService, never()).getMultiLock(anyList(), anyString());
+        verify(lock, times(2)).unlock();
+    }
+
+    @Test
+    void hierarchicalLocksTakenOneByOne() throws Throwable {
+        when(lockingService.getHierarchicalLock(any(), any(), any(), any())).thenReturn(lock);
+        when(lock.tryLock(5, TimeUnit.SECONDS)).thenReturn(true);
+        assertThat(execute("hierarchical")).isEqualTo("done");
+        verify(lockingService).getHierarchicalLock(Namespace.SALE_ORDER, null, Level.TENANT, LockMode.X);
+        verify(lockingService).getHierarchicalLock(Namespace.SALE_ORDER, "SO1", Level.FACILITY, LockMode.S);
+        verify(lockingService, never()).getMultiLock(anyList(), anyString());
+        verify(lock, times(2)).unlock();
+    }
+
+    @Test
+    void optimisticMethodTakesLockForLastAttemptOnly() throws Throwable {
+        OptimisticLockPolicy policy = new OptimisticLockPolicy("ITEM_TYPE", 3, 0, 0, 0.5, 100, 60000, 60000);
+        when(lockingService.getOptimisticLockPolicy(Namespace.ITEM_TYPE)).thenReturn(policy);
+        ProceedingJoinPoint pjp = mockJoinPoint("optimistic");
+        when(pjp.proceed()).thenThrow(new OptimisticLockingFailureException("stale")).thenThrow(new OptimisticLockingFailureException("stale")).thenReturn("done");
+
+        assertThat(aspect.executeAfterLock(pjp, getLocks("optimistic"))).isEqualTo("done");
+        verify(pjp, times(3)).proceed();
+        verify(lock).lock();
+        verify(lock).unlock();
+    }
+
+    @Test
+    void lastAttemptConflictsWithOptimisticAttemptsElsewhere() throws Throwable {
+        OptimisticLockPolicy policy = spy(new OptimisticLockPolicy("ITEM_TYPE", 2, 0, 0, 0.5, 100, 60000, 60000));
+        when(lockingService.getOptimisticLockPolicy(Namespace.ITEM_TYPE)).thenReturn(policy);
+        ProceedingJoinPoint pjp = mockJoinPoint("optimistic");
+        when(pjp.proceed()).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        assertThatThrownBy(() -> aspect.executeAfterLock(pjp, getLocks("optimistic"))).isInstanceOf(OptimisticLockingFailureException.class);
+        verify(pjp, times(2)).proceed();
+        verify(lock).unlock();
+        verify(policy, times(2)).onAttempt(true);
+    }
+
+    private Object execute(String methodName) throws Throwable {
+        ProceedingJoinPoint pjp = mockJoinPoint(methodName);
+        when(pjp.proceed()).thenReturn("done");
+        return aspect.executeAfterLock(pjp, getLocks(methodName));
+    }
+
+    private static ProceedingJoinPoint mockJoinPoint(String methodName) throws Exception {
+        Method method = LockingAspectTest.class.getDeclaredMethod(methodName, String.class, String.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        ProceedingJoinPoint pjp = mock(ProceedingJoinPoint.class);
+        when(pjp.getSignature()).thenReturn(signature);
+        when(pjp.getArgs()).thenReturn(new Object[] { "SO1", "SO2" });
+        return pjp;
+    }
+
+    private static Locks getLocks(String methodName) throws Exception {
+        return LockingAspectTest.class.getDeclaredMethod(methodName, String.class, String.class).getAnnotation(Locks.class);
+    }
+
+    /* only read reflectively, never called */
+    @Locks(value = { @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[0]}", timeoutInSeconds = -1),
+            @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[1]}", timeoutInSeconds = 5) }, together = true)
+    private static void foreverAndFiveSeconds(String first, String second) {
+    }
+
+    @Locks(value = { @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[0]}", timeoutInSeconds = 5),
+            @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[1]}", timeoutInSeconds = 10) }, together = true)
+    private static void fiveAndTenSeconds(String first, String second) {
+    }
+
+    @Locks({ @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[0]}", timeoutInSeconds = 5),
+            @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[1]}", timeoutInSeconds = 5) })
+    private static void oneAfterAnother(String first, String second) {
+    }
+
+    @Locks(@com.uc.wms.annotation.Lock(ns = Namespace.ITEM_TYPE, key = "#{#args[0]}", timeoutInSeconds = -1))
+    private static void optimistic(String first, String second) {
+    }
+
+    @Locks(value = { @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[0]}", timeoutInSeconds = 5),
+            @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[1]}", permits = 2, timeoutInSeconds = 5) }, together = true)
+    private static void semaphores(String first, String second) {
+    }
+
+    @Locks(value = { @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "", hierarchical = true, timeoutInSeconds = 5),
+            @com.uc.wms.annotation.Lock(ns = Namespace.SALE_ORDER, key = "#{#args[0]}", level = Level.FACILITY, hierarchical = true, mode = LockMode.S, timeoutInSeconds = 5) }, together = true)
+    private static void hierarchical(String first, String second) {
+    }
+}
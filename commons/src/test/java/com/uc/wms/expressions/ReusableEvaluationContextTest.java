@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.expressions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.EvaluationContext;
+
+class ReusableEvaluationContextTest {
+
+    @Test
+    void releaseClearsBoundVariables() {
+        ReusableEvaluationContext context = ReusableEvaluationContext.acquire();
+        EvaluationContext bound = context.bind(Collections.singletonMap("order", "SO1"));
+        context.release();
+        assertThat(bound.lookupVariable("order")).isNull();
+    }
+
+    @Test
+    void releaseClearsAssignedVariables() {
+        Map<String, Object> params = Collections.singletonMap("order", "SO1");
+        assertThat(Expression.compile("#{#copy = #order}").evaluate(params)).isEqualTo("SO1");
+
+        ReusableEvaluationContext context = ReusableEvaluationContext.acquire();
+        try {
+            assertThat(context.bind(Collections.emptyMap()).lookupVariable("copy")).isNull();
+        } finally {
+            context.release();
+        }
+        assertThat(Expression.compile("#{#copy}").evaluate(Collections.emptyMap())).isNull();
+    }
+
+    @Test
+    void nestedEvaluationGetsOwnContext() {
+        ReusableEvaluationContext outer = ReusableEvaluationContext.acquire();
+        try {
+            ReusableEvaluationContext inner = ReusableEvaluationContext.acquire();
+            assertThat(inner).isNotSameAs(outer);
+            inner.release();
+        } finally {
+            outer.release();
+        }
+        ReusableEvaluationContext again = ReusableEvaluationContext.acquire();
+        again.release();
+        assertThat(again).isSameAs(outer);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.expressions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.EvaluationException;
+
+class RuleSetTest {
+
+    private static final List<Object> PAYMENT_METHODS = Arrays.asList("COD", "PREPAID", null);
+
+    private static final List<Object> SELLING_PRICES  = Arrays.asList(99, 100, 24999.5, 25000, 25000L, 25000.0, new BigDecimal("25000.00"), 30000, 45000L);
+
+    private static final List<Object> CHANNELS        = Arrays.asList("AMAZON", "amazon", "FLIPKART");
+
+    @Test
+    void matchesLikeEveryRuleOnItsOwn() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("codHigh", "#{#paymentMethod == 'COD' and #sellingPrice > 25000}");
+        rules.put("cod", "#{#paymentMethod == 'COD'}");
+        rules.put("prepaidRange", "#{#sellingPrice >= 100 and #sellingPrice < 30000 and #paymentMethod == 'PREPAID'}");
+        rules.put("flipped", "#{25000 <= #sellingPrice}");
+        rules.put("exact", "#{#sellingPrice == 25000}");
+        rules.put("amazonUpTo", "#{#channel?.toUpperCase() == 'AMAZON' and #sellingPrice <= 25000}");
+        rules.put("residual", "#{#channel.startsWith('FLIP') and #paymentMethod != 'COD'}");
+        rules.put("disjunction", "#{#paymentMethod == 'COD' or #channel == 'AMAZON'}");
+        rules.put("unpaid", "#{#paymentMethod == null}");
+        RuleSet ruleSet = new RuleSet(rules);
+        assertThat(ruleSet.size()).isEqualTo(rules.size());
+
+        for (Object paymentMethod : PAYMENT_METHODS) {
+            for (Object sellingPrice : SELLING_PRICES) {
+                for (Object channel : CHANNELS) {
+                    Map<String, Object> params = getParams(paymentMethod, sellingPrice, channel);
+                    assertThat(ruleSet.getMatchingRules(params)).as(params.toString()).isEqualTo(evaluateEach(rules, params));
+                }
+            }
+        }
+    }
+
+    @Test
+    void sharesConjunctsAcrossRules() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("first", "#{#counter.next() > 0 and #paymentMethod == 'COD'}");
+        rules.put("second", "#{#counter.next() > 0 and #paymentMethod == 'PREPAID'}");
+        rules.put("third", "#{#counter.next() > 0}");
+        Counter counter = new Counter();
+        Map<String, Object> params = getParams("COD", 100, "AMAZON");
+        params.put("counter", counter);
+
+        assertThat(new RuleSet(rules).getMatchingRules(params)).containsExactly("first", "third");
+        assertThat(counter.count).isEqualTo(1);
+    }
+
+    @Test
+    void failsLikeTheFailingRuleOnItsOwn() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("cod", "#{#paymentMethod.trim() == 'COD'}");
+        rules.put("high", "#{#sellingPrice > 25000}");
+        RuleSet ruleSet = new RuleSet(rules);
+
+        assertThat(ruleSet.getMatchingRules(getParams(" COD", 30000, "AMAZON"))).containsExactly("cod", "high");
+        assertThatThrownBy(() -> Expression.compile(rules.get("cod")).evaluate(getParams(null, 30000, "AMAZON"), Boolean.class)).isInstanceOf(EvaluationException.class);
+        assertThatThrownBy(() -> ruleSet.getMatchingRules(getParams(null, 30000, "AMAZON"))).isInstanceOf(EvaluationException.class);
+    }
+
+    @Test
+    void convertsNonBooleanConjunctsLikeTheRuleOnItsOwn() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("flagged", "#{#sellingPrice == 100 and #flag}");
+        rules.put("flag", "#{#flag}");
+        RuleSet ruleSet = new RuleSet(rules);
+        Map<String, Object> params = getParams("COD", 100, "AMAZON");
+
+        params.put("flag", "true");
+        assertThat(ruleSet.getMatchingRules(params)).containsExactly("flagged", "flag").isEqualTo(evaluateEach(rules, params));
+        params.put("flag", "false");
+        assertThat(ruleSet.getMatchingRules(params)).isEmpty();
+
+        params.put("flag", null);
+        assertThatThrownBy(() -> Expression.compile(rules.get("flagged")).evaluate(params, Boolean.class)).isInstanceOf(EvaluationException.class);
+        assertThatThrownBy(() -> ruleSet.getMatchingRules(params)).isInstanceOf(EvaluationException.class);
+        assertThat(new RuleSet(Collections.singletonMap("flag", rules.get("flag"))).getMatchingRules(params)).isEmpty();
+    }
+
+    @Test
+    void matchesNothingWithoutRules() {
+        assertThat(new RuleSet(new LinkedHashMap<>()).getMatchingRules(getParams("COD", 100, "AMAZON"))).isEmpty();
+    }
+
+    private static List<String> evaluateEach(Map<String, String> rules, Map<String, Object> params) {
+        List<String> matching = new ArrayList<>();
+        for (Map.Entry<String, String> rule : rules.entrySet()) {
+            if (Boolean.TRUE.equals(Expression.compile(rule.getValue()).evaluate(params, Boolean.class))) {
+                matching.add(rule.getKey());
+            }
+        }
+        return matching;
+    }
+
+    private static Map<String, Object> getParams(Object paymentMethod, Object sellingPrice, Object channel) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("paymentMethod", paymentMethod);
+        params.put("sellingPrice", sellingPrice);
+        params.put("channel", channel);
+        return params;
+    }
+
+    public static final class Counter {
+        private int count;
+
+        public int next() {
+            return ++count;
+        }
+    }
+}
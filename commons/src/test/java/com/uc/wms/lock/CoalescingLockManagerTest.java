@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CoalescingLockManagerTest extends ZooKeeperTestBase {
+
+    private LockingClient   otherClient;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        otherClient = newClient();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void handsLockNodeOverToLocalWaiter() throws Exception {
+        CoalescingLockManager manager = new CoalescingLockManager(client);
+        String path = "/TENANT/SALE_ORDER/tenant1/SO1";
+        Lock first = manager.getLock(path);
+        first.lock();
+        List<String> nodes = getChildren(path);
+        CountDownLatch waiting = new CountDownLatch(1);
+        Future<List<String>> second = executor.submit(() -> {
+            Lock lock = manager.getLock(path);
+            waiting.countDown();
+            lock.lock();
+            try {
+                return getChildren(path);
+            } finally {
+                lock.unlock();
+            }
+        });
+        waiting.await();
+        Thread.sleep(200);
+        // the local waiter queues in the JVM, not in zookeeper
+        assertThat(getChildren(path)).isEqualTo(nodes);
+        first.unlock();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(nodes);
+        assertThat(getChildren(path)).isEmpty();
+        manager.close();
+    }
+
+    @Test
+    void excludesOtherJvm() throws Exception {
+        CoalescingLockManager manager = new CoalescingLockManager(client);
+        CoalescingLockManager otherManager = new CoalescingLockManager(otherClient);
+        String path = "/TENANT/SALE_ORDER/tenant1/SO2";
+        Lock lock = manager.getLock(path);
+        lock.lock();
+        Lock other = otherManager.getLock(path);
+        assertThat(executor.submit(() -> other.tryLock(200, TimeUnit.MILLISECONDS)).get()).isFalse();
+        lock.unlock();
+        assertThat(executor.submit(() -> {
+            boolean acquired = other.tryLock(5, TimeUnit.SECONDS);
+            if (acquired) {
+                other.unlock();
+            }
+            return acquired;
+        }).get()).isTrue();
+        manager.close();
+        otherManager.close();
+    }
+
+    @Test
+    void waiterInterruptedAfterHandoffReleasesLockNode() throws Exception {
+        LockingClient spied = spy(client);
+        CoalescingLockManager manager = new CoalescingLockManager(spied);
+        String path = "/TENANT/SALE_ORDER/tenant1/SO5";
+        Lock first = manager.getLock(path);
+        first.lock();
+        AtomicReference<Thread> waiterThread = new AtomicReference<>();
+        Future<?> waiter = executor.submit(() -> {
+            waiterThread.set(Thread.currentThread());
+            manager.getLock(path).lockInterruptibly();
+            return null;
+        });
+        while (waiterThread.get() == null || waiterThread.get().getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+        // interrupt the waiter once the holder has seen it queued and decided to hand the znode over
+        doAnswer(invocation -> {
+            waiterThread.get().interrupt();
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(InterruptedException.class);
+            return invocation.callRealMethod();
+        }).when(spied).getConnectionEpoch();
+        first.unlock();
+
+        Lock other = new CoalescingLockManager(otherClient).getLock(path);
+        assertThat(other.tryLock(5, TimeUnit.SECONDS)).isTrue();
+        other.unlock();
+        assertThat(manager.getActivePathCount()).isZero();
+        manager.close();
+    }
+
+    @Test
+    void lingerKeepsIdleLockNode() throws Exception {
+        CoalescingLockManager manager = new CoalescingLockManager(client, 500, CoalescingLockManager.DEFAULT_MAX_HANDOFFS);
+        String path = "/TENANT/SALE_ORDER/tenant1/SO3";
+        Lock lock = manager.getLock(path);
+        lock.lock();
+        List<String> nodes = getChildren(path);
+        lock.unlock();
+        assertThat(getChildren(path)).isEqualTo(nodes);
+        lock.lock();
+        assertThat(getChildren(path)).isEqualTo(nodes);
+        lock.unlock();
+        Thread.sleep(1000);
+        assertThat(getChildren(path)).isEmpty();
+        assertThat(manager.getActivePathCount()).isZero();
+        manager.close();
+    }
+
+    @Test
+    void serviceCoalescesWhenEnabled() throws Exception {
+        client.setLockCoalescing(true, 500, CoalescingLockManager.DEFAULT_MAX_HANDOFFS);
+        TestLockingService service = new TestLockingService(client);
+        String path = service.getLockPath(Namespace.SALE_ORDER, "SO4", Level.TENANT);
+        Lock lock = service.getLock(Namespace.SALE_ORDER, "SO4");
+        lock.lock();
+        List<String> nodes = getChildren(path);
+        lock.unlock();
+        // still lingering for the next requester of the JVM
+        Lock next = service.getLock(Namespace.SALE_ORDER, "SO4");
+        next.lock();
+        assertThat(getChildren(path)).isEqualTo(nodes);
+        next.unlock();
+        client.setLockCoalescing(false, 0, 0);
+        assertThat(getChildren(path)).isEmpty();
+    }
+
+    private List<String> getChildren(String path) throws Exception {
+        return client.getLockingClient().getChildren().forPath(path);
+    }
+}
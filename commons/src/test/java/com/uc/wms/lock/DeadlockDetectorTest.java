@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.LockRequest;
+import com.uc.wms.aspect.locking.Namespace;
+import com.uc.wms.lock.exception.DeadlockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DeadlockDetectorTest extends ZooKeeperTestBase {
+
+    private static final long INTERVAL_MS = 200;
+
+    private LockingClient     otherClient;
+
+    private ExecutorService   executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        otherClient = newClient();
+        client.setDeadlockDetection(INTERVAL_MS);
+        otherClient.setDeadlockDetection(INTERVAL_MS);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void abortsOneWaitOfCycleWithinJvm() throws Exception {
+        assertOneWaitAborted(client, client);
+    }
+
+    @Test
+    void abortsOneWaitOfCycleAcrossJvms() throws Exception {
+        assertOneWaitAborted(client, otherClient);
+    }
+
+    @Test
+    void longWaitWithoutCycleIsNotAborted() throws Exception {
+        TestLockingService service = new TestLockingService(client);
+        Lock held = service.getLock(Namespace.SALE_ORDER, "SO1", Level.TENANT);
+        held.lock();
+        Future<Boolean> waiter = executor.submit(() -> {
+            Lock lock = new TestLockingService(otherClient).getLock(Namespace.SALE_ORDER, "SO1", Level.TENANT);
+            boolean acquired = lock.tryLock(10, TimeUnit.SECONDS);
+            if (acquired) {
+                lock.unlock();
+            }
+            return acquired;
+        });
+        Thread.sleep(INTERVAL_MS * 5);
+        held.unlock();
+        assertThat(waiter.get(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void abortsOneWaitOfCycleThroughMultiLock() throws Exception {
+        TestLockingService service = new TestLockingService(client);
+        TestLockingService otherService = new TestLockingService(otherClient);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Future<Boolean> first = executor.submit(() -> lockBoth(() -> getMultiLock(service, "SO1", "SO3"), () -> getLock(service, "SO2"), barrier));
+        Future<Boolean> second = executor.submit(() -> lockBoth(() -> getLock(otherService, "SO2"), () -> getMultiLock(otherService, "SO1", "SO3"), barrier));
+        assertOneAborted(first, second);
+    }
+
+    @Test
+    void abortsOneWaitOfCycleThroughHandedOverCoalescedLock() throws Exception {
+        client.setLockCoalescing(true, 0, CoalescingLockManager.DEFAULT_MAX_HANDOFFS);
+        TestLockingService service = new TestLockingService(client);
+        TestLockingService otherService = new TestLockingService(otherClient);
+        Lock creator = getLock(service, "SO1");
+        creator.lock();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        // queued locally behind the creator, the waiter gets its znode handed over
+        Future<Boolean> first = executor.submit(() -> lockBoth(() -> getLock(service, "SO1"), () -> getLock(service, "SO2"), barrier));
+        Thread.sleep(INTERVAL_MS);
+        creator.unlock();
+        Future<Boolean> second = executor.submit(() -> lockBoth(() -> getLock(otherService, "SO2"), () -> getLock(otherService, "SO1"), barrier));
+        assertOneAborted(first, second);
+    }
+
+    /* two threads taking the same two keys in opposite order, exactly one of them is the victim */
+    private void assertOneWaitAborted(LockingClient firstClient, LockingClient secondClient) throws Exception {
+        TestLockingService firstService = new TestLockingService(firstClient);
+        TestLockingService secondService = new TestLockingService(secondClient);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Future<Boolean> first = executor.submit(() -> lockBoth(() -> getLock(firstService, "SO1"), () -> getLock(firstService, "SO2"), barrier));
+        Future<Boolean> second = executor.submit(() -> lockBoth(() -> getLock(secondService, "SO2"), () -> getLock(secondService, "SO1"), barrier));
+        assertOneAborted(first, second);
+    }
+
+    private static void assertOneAborted(Future<Boolean> first, Future<Boolean> second) throws Exception {
+        boolean firstAcquired = first.get(20, TimeUnit.SECONDS);
+        boolean secondAcquired = second.get(20, TimeUnit.SECONDS);
+        assertThat(firstAcquired ^ secondAcquired).isTrue();
+    }
+
+    private static Lock getLock(TestLockingService service, String key) {
+        return service.getLock(Namespace.SALE_ORDER, key, Level.TENANT);
+    }
+
+    private static Lock getMultiLock(TestLockingService service, String... keys) {
+        List<LockRequest> requests = new ArrayList<>();
+        for (String key : keys) {
+            requests.add(new LockRequest(Namespace.SALE_ORDER, key, Level.TENANT));
+        }
+        return service.getMultiLock(requests, "");
+    }
+
+    /* true if both locks were taken, false if the wait for the second one was aborted as a deadlock */
+    private static boolean lockBoth(Supplier<Lock> firstLocks, Supplier<Lock> secondLocks, CyclicBarrier barrier) throws Exception {
+        Lock firstLock = firstLocks.get();
+        firstLock.lock();
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+            Lock secondLock = secondLocks.get();
+            try {
+                if (!secondLock.tryLock(15, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Timed out instead of breaking the deadlock");
+                }
+            } catch (DeadlockException e) {
+                assertThat(e.getCycle()).hasSize(2);
+                assertThat(Thread.currentThread().isInterrupted()).isFalse();
+                return false;
+            }
+            secondLock.unlock();
+            return true;
+        } finally {
+            firstLock.unlock();
+        }
+    }
+}
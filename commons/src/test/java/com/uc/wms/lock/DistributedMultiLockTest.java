@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DistributedMultiLockTest extends ZooKeeperTestBase {
+
+    private static final List<String> PATHS = Arrays.asList("/TENANT/SALE_ORDER/tenant1/SO2", "/TENANT/SALE_ORDER/tenant1/SO1");
+
+    private ExecutorService           executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void locksAndReleasesEveryPath() throws Exception {
+        DistributedMultiLock lock = new DistributedMultiLock(client, PATHS, "test");
+        lock.lockInterruptibly();
+        assertThat(lock.getPaths()).containsExactly("/TENANT/SALE_ORDER/tenant1/SO1", "/TENANT/SALE_ORDER/tenant1/SO2");
+        assertThat(executor.submit(() -> new DistributedMultiLock(client, PATHS.subList(1, 2), "test").tryLock(100, TimeUnit.MILLISECONDS)).get()).isFalse();
+        lock.unlock();
+        waitForNoChildren();
+    }
+
+    @Test
+    void lockInterruptiblyGivesUpOnInterrupt() throws Exception {
+        DistributedMultiLock holder = new DistributedMultiLock(client, PATHS.subList(1, 2), "test");
+        holder.lock();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                new DistributedMultiLock(client, PATHS, "test").lockInterruptibly();
+            } catch (Throwable t) {
+                thrown.set(t);
+            }
+        });
+        waiter.start();
+        Thread.sleep(300);
+        waiter.interrupt();
+        waiter.join(5000);
+        assertThat(thrown.get()).isInstanceOf(InterruptedException.class);
+        holder.unlock();
+        waitForNoChildren();
+    }
+
+    @Test
+    void compositeLockInterruptiblyDelegates() throws Exception {
+        CompositeLock lock = new CompositeLock(Arrays.asList(new DistributedMultiLock(client, PATHS.subList(0, 1), "test"), new DistributedMultiLock(client, PATHS.subList(1, 2), "test")));
+        lock.lockInterruptibly();
+        lock.unlock();
+        waitForNoChildren();
+    }
+
+    private void waitForNoChildren() throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            int children = 0;
+            for (String path : PATHS) {
+                if (client.getLockingClient().checkExists().forPath(path) != null) {
+                    children += client.getLockingClient().getChildren().forPath(path).size();
+                }
+            }
+            if (children == 0) {
+                return;
+            }
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DistributedSemaphoreTest extends ZooKeeperTestBase {
+
+    private TestLockingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new TestLockingService(client);
+        service.setNamespacePermits(Collections.singletonMap(Namespace.SALE_ORDER, 2));
+    }
+
+    @Test
+    void admitsAsManyHoldersAsPermits() throws Exception {
+        Lock first = getSemaphore("SO1");
+        Lock second = getSemaphore("SO1");
+        Lock third = getSemaphore("SO1");
+        assertThat(first.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(third.tryLock(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(getSemaphore("SO2").tryLock(1, TimeUnit.SECONDS)).isTrue();
+
+        first.unlock();
+        assertThat(third.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        second.unlock();
+        third.unlock();
+    }
+
+    @Test
+    void livesNextToKeyLock() throws Exception {
+        Lock semaphore = getSemaphore("SO1");
+        assertThat(semaphore.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        Lock lock = service.getLock(Namespace.SALE_ORDER, "SO1", Level.TENANT);
+        assertThat(lock.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        lock.unlock();
+        semaphore.unlock();
+        String path = service.getLockPath(Namespace.SALE_ORDER, "SO1", Level.TENANT);
+        assertThat(client.getLockingClient().checkExists().forPath(LockPaths.prefixKey(path, LockPaths.SEMAPHORE))).isNotNull();
+    }
+
+    @Test
+    void onePermitIsPlainLock() throws Exception {
+        assertThat(service.getPermits(Namespace.ITEM_TYPE)).isEqualTo(1);
+        Lock semaphore = service.getSemaphore(Namespace.ITEM_TYPE, "IT1", Level.TENANT, 1, "test");
+        assertThat(semaphore).isNotInstanceOf(DistributedSemaphore.class);
+        assertThat(semaphore.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(new TestLockingService(client).getLock(Namespace.ITEM_TYPE, "IT1", Level.TENANT).tryLock(200, TimeUnit.MILLISECONDS)).isFalse();
+        semaphore.unlock();
+    }
+
+    @Test
+    void rejectsNonPositivePermits() {
+        assertThatThrownBy(() -> service.setNamespacePermits(Collections.singletonMap(Namespace.ITEM_TYPE, 0))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.getPermits(Namespace.SALE_ORDER)).isEqualTo(2);
+    }
+
+    private Lock getSemaphore(String key) {
+        return service.getSemaphore(Namespace.SALE_ORDER, key, Level.TENANT, service.getPermits(Namespace.SALE_ORDER), "test");
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HierarchicalLockTest extends ZooKeeperTestBase {
+
+    private LockingClient otherClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        otherClient = newClient();
+    }
+
+    @Test
+    void facilityKeysOfOneTenantRunConcurrently() throws Exception {
+        Lock first = new TestLockingService(client, "tenant1", "facility1").getHierarchicalLock(Namespace.SALE_ORDER, "SO1", Level.FACILITY, LockMode.X);
+        Lock second = new TestLockingService(otherClient, "tenant1", "facility2").getHierarchicalLock(Namespace.SALE_ORDER, "SO1", Level.FACILITY, LockMode.X);
+        assertThat(first.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.tryLock(1, TimeUnit.SECONDS)).isTrue();
+
+        Lock tenant = new TestLockingService(otherClient, "tenant1", "facility3").getHierarchicalLock(Namespace.SALE_ORDER, null, Level.TENANT, LockMode.X);
+        assertThat(tenant.tryLock(200, TimeUnit.MILLISECONDS)).isFalse();
+        first.unlock();
+        second.unlock();
+        assertThat(tenant.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        tenant.unlock();
+    }
+
+    @Test
+    void globalExclusiveExcludesTenantsOnEveryStripe() throws Exception {
+        TestLockingService tenant1 = new TestLockingService(client, "tenant1", "facility1");
+        TestLockingService tenant2 = new TestLockingService(client, "tenant2", "facility1");
+        Lock first = tenant1.getHierarchicalLock(Namespace.SALE_ORDER, "SO1", Level.FACILITY, LockMode.X);
+        Lock second = tenant2.getHierarchicalLock(Namespace.SALE_ORDER, "SO1", Level.FACILITY, LockMode.X);
+        assertThat(first.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(getStripeNodes(Namespace.SALE_ORDER)).isEqualTo(2);
+
+        Lock global = new TestLockingService(otherClient).getHierarchicalLock(Namespace.SALE_ORDER, null, Level.GLOBAL, LockMode.X);
+        assertThat(global.tryLock(200, TimeUnit.MILLISECONDS)).isFalse();
+        first.unlock();
+        assertThat(global.tryLock(200, TimeUnit.MILLISECONDS)).isFalse();
+        second.unlock();
+        assertThat(global.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(getStripeNodes(Namespace.SALE_ORDER)).isEqualTo(AbstractLockingService.DEFAULT_HIERARCHY_STRIPES);
+        global.unlock();
+    }
+
+    @Test
+    void globalSharedAdmitsReadersOnly() throws Exception {
+        Lock global = new TestLockingService(client).getHierarchicalLock(Namespace.SALE_ORDER, null, Level.GLOBAL, LockMode.S);
+        assertThat(global.tryLock(1, TimeUnit.SECONDS)).isTrue();
+
+        TestLockingService other = new TestLockingService(otherClient);
+        Lock reader = other.getHierarchicalLock(Namespace.SALE_ORDER, "SO1", Level.TENANT, LockMode.S);
+        assertThat(reader.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        reader.unlock();
+        assertThat(other.getHierarchicalLock(Namespace.SALE_ORDER, "SO1", Level.TENANT, LockMode.X).tryLock(200, TimeUnit.MILLISECONDS)).isFalse();
+        global.unlock();
+    }
+
+    @Test
+    void keysAreSanitized() throws Exception {
+        Lock lock = new TestLockingService(client).getHierarchicalLock(Namespace.SALE_ORDER, "SO/1", Level.TENANT, LockMode.X);
+        assertThat(lock.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        String path = LockPaths.getGranuleLockPath(Namespace.SALE_ORDER, TestLockingService.TENANT, "SO_1");
+        assertThat(client.getLockingClient().getChildren().forPath(path)).hasSize(1);
+        lock.unlock();
+    }
+
+    /* lock nodes over all the stripes of the namespace's global granule */
+    private int getStripeNodes(Namespace namespace) throws Exception {
+        int nodes = 0;
+        for (int stripe = 0; stripe < AbstractLockingService.DEFAULT_HIERARCHY_STRIPES; stripe++) {
+            String path = LockPaths.getGlobalStripePath(namespace, stripe);
+            if (client.getLockingClient().checkExists().forPath(path) != null) {
+                nodes += client.getLockingClient().getChildren().forPath(path).size();
+            }
+        }
+        return nodes;
+    }
+}
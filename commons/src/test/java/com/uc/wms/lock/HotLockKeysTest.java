@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import com.codahale.metrics.Gauge;
+import com.uc.wms.aspect.locking.Namespace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HotLockKeysTest {
+
+    @BeforeEach
+    void setUp() {
+        HotLockKeys.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        HotLockKeys.reset();
+    }
+
+    @Test
+    void ranksHottestKeysFirst() {
+        for (int i = 0; i < 100; i++) {
+            HotLockKeys.record(Namespace.SALE_ORDER, "SO" + i, 0);
+        }
+        HotLockKeys.record(Namespace.SALE_ORDER, "HOT", 5000);
+        HotLockKeys.record(Namespace.SALE_ORDER, "WARM", 1000);
+
+        List<HotLockKeys.HotKey> hotKeys = HotLockKeys.getHotKeys(Namespace.SALE_ORDER);
+        assertThat(hotKeys.get(0).getKey()).isEqualTo("HOT");
+        assertThat(hotKeys.get(0).getWeight()).isGreaterThanOrEqualTo(5001);
+        assertThat(hotKeys.get(1).getKey()).isEqualTo("WARM");
+    }
+
+    @Test
+    void publishesNumericGaugePerRank() {
+        HotLockKeys.record(Namespace.PICKLIST, "PL1", 99);
+        HotLockKeys.record(Namespace.PICKLIST, "PL2", 9);
+
+        assertThat(getGauge("wms.lock.PICKLIST.hotKeys.rank1").getValue()).isEqualTo(100L);
+        assertThat(getGauge("wms.lock.PICKLIST.hotKeys.rank2").getValue()).isEqualTo(10L);
+        assertThat(getGauge("wms.lock.PICKLIST.hotKeys.rank3").getValue()).isEqualTo(0L);
+    }
+
+    @Test
+    void rowsDoNotShareCollisions() {
+        // same String.hashCode, which used to put them on the same counter of every row
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        HotLockKeys.record(Namespace.ITEM, "Aa", 1000);
+
+        assertThat(HotLockKeys.estimate(Namespace.ITEM, "Aa")).isEqualTo(1001);
+        assertThat(HotLockKeys.estimate(Namespace.ITEM, "BB")).isZero();
+        int sameHashes = 0;
+        for (int row = 0; row < HotLockKeys.DEPTH; row++) {
+            if (HotLockKeys.hash("Aa", row) == HotLockKeys.hash("BB", row)) {
+                sameHashes++;
+            }
+        }
+        assertThat(sameHashes).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Gauge<Long> getGauge(String name) {
+        return (Gauge<Long>) LockMetrics.getRegistry().getGauges().get(name);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import com.uc.wms.aspect.locking.Namespace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JobLeadershipTest extends ZooKeeperTestBase {
+
+    private static final long WAIT_MS = 10000;
+
+    private LockingClient     otherClient;
+
+    private JobLeadership     leadership;
+
+    private JobLeadership     otherLeadership;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        otherClient = newClient();
+        leadership = new JobLeadership(client);
+        otherLeadership = new JobLeadership(otherClient);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        leadership.close();
+        otherLeadership.close();
+    }
+
+    @Test
+    void keyRankedToMemberNotRunningItGoesToItsCandidate() throws Exception {
+        String key = getKeyRankedTo(otherLeadership);
+        // the other member is in the namespace but never asks about the key
+        otherLeadership.isOwner(Namespace.JOB, "otherJob");
+        assertThat(await(() -> leadership.isOwner(Namespace.JOB, key))).isTrue();
+        assertThat(otherLeadership.getOwnedKeys(Namespace.JOB)).doesNotContain(key);
+    }
+
+    @Test
+    void keyMovesToNextCandidateWhenOwnerLeaves() throws Exception {
+        String key = getKeyRankedTo(otherLeadership);
+        assertThat(await(() -> otherLeadership.isOwner(Namespace.JOB, key))).isTrue();
+        assertThat(await(() -> !leadership.isOwner(Namespace.JOB, key) && leadership.getOwnedKeys(Namespace.JOB).isEmpty())).isTrue();
+
+        otherLeadership.close();
+        assertThat(await(() -> leadership.isOwner(Namespace.JOB, key))).isTrue();
+    }
+
+    @Test
+    void rankDoesNotDependOnOrder() {
+        for (int i = 0; i < 100; i++) {
+            String key = "job" + i;
+            assertThat(JobLeadership.rank(Arrays.asList("a", "b", "c"), key)).isEqualTo(JobLeadership.rank(Arrays.asList("c", "a", "b"), key));
+        }
+    }
+
+    /* a key the given member wins against the other one */
+    private String getKeyRankedTo(JobLeadership winner) {
+        for (int i = 0;; i++) {
+            String key = "job" + i;
+            if (winner.getMemberId().equals(JobLeadership.rank(Arrays.asList(leadership.getMemberId(), otherLeadership.getMemberId()), key))) {
+                return key;
+            }
+        }
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+}
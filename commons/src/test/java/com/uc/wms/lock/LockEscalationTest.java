@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LockEscalationTest extends ZooKeeperTestBase {
+
+    private static final List<String> KEYS = Arrays.asList("SO/1", "SO 2", "SO3");
+
+    private TestLockingService        service;
+
+    private ExecutorService           executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new TestLockingService(client);
+        service.setLockEscalations(Collections.singletonMap(Namespace.SALE_ORDER, new LockEscalation(2, 64)));
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sanitizesKeysIntoLockPath() {
+        assertThat(service.getLockPath(Namespace.SALE_ORDER, "SO/1", Level.TENANT)).isEqualTo("/TENANT/SALE_ORDER/tenant1/SO_1");
+        String path = service.getLockPath(Namespace.SALE_ORDER, "SO1", Level.TENANT);
+        assertThat(new LockEscalation(2, 64).getBucketPath(path)).startsWith("/TENANT/SALE_ORDER/tenant1/" + LockPaths.BUCKET);
+        assertThat(LockPaths.prefixKey(path, LockPaths.SEMAPHORE)).isEqualTo("/TENANT/SALE_ORDER/tenant1/~permits-SO1");
+    }
+
+    @Test
+    void bulkLockExcludesKeyLocksOfItsBuckets() throws Exception {
+        Lock keyLock = service.getLock(Namespace.SALE_ORDER, "SO/1");
+        keyLock.lock();
+        try {
+            assertThat(tryBulkLock()).isFalse();
+        } finally {
+            keyLock.unlock();
+        }
+        assertThat(tryBulkLock()).isTrue();
+    }
+
+    @Test
+    void keyLockWaitsForBulkLock() throws Exception {
+        Lock bulkLock = service.getBulkLock(Namespace.SALE_ORDER, Level.TENANT, KEYS, "");
+        assertThat(bulkLock.tryLock(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            assertThat(executor.submit(() -> service.getLock(Namespace.SALE_ORDER, "SO 2").tryLock(200, TimeUnit.MILLISECONDS)).get()).isFalse();
+        } finally {
+            bulkLock.unlock();
+        }
+    }
+
+    @Test
+    void semaphoreKeepsItsPrefix() throws Exception {
+        Lock semaphore = service.getSemaphore(Namespace.SALE_ORDER, "SO/1", Level.TENANT, 2, "");
+        semaphore.lock();
+        try {
+            assertThat(client.getLockingClient().checkExists().forPath("/TENANT/SALE_ORDER/tenant1/~permits-SO_1")).isNotNull();
+        } finally {
+            semaphore.unlock();
+        }
+    }
+
+    /* from another thread, the bulk lock's key is not reentrant for the locking one */
+    private boolean tryBulkLock() throws Exception {
+        return executor.submit(() -> {
+            Lock bulkLock = service.getBulkLock(Namespace.SALE_ORDER, Level.TENANT, KEYS, "");
+            boolean acquired = bulkLock.tryLock(200, TimeUnit.MILLISECONDS);
+            if (acquired) {
+                bulkLock.unlock();
+            }
+            return acquired;
+        }).get();
+    }
+}
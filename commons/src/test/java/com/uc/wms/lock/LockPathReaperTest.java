@@ -0,0 +1,96 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import com.uc.wms.aspect.locking.Namespace;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.CreateMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LockPathReaperTest extends ZooKeeperTestBase {
+
+    private static final long   MIN_IDLE_MS = 300;
+
+    private static final String SCOPE       = "/TENANT/SALE_ORDER/tenant1";
+
+    private CuratorFramework    curator;
+
+    private LockPathReaper      reaper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        curator = client.getLockingClient();
+        reaper = new LockPathReaper(new ShardedLockingClient(client), Collections.singleton(Namespace.SALE_ORDER), MIN_IDLE_MS, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        reaper.close();
+    }
+
+    @Test
+    void firstPassOnlyMarksItsStart() throws Exception {
+        curator.create().creatingParentsIfNeeded().forPath(SCOPE + "/SO1");
+        Thread.sleep(MIN_IDLE_MS);
+        assertThat(reaper.reap()).isZero();
+        assertThat(curator.checkExists().forPath(SCOPE + "/SO1")).isNotNull();
+    }
+
+    @Test
+    void keepsKeysLockedSinceAnIdlePass() throws Exception {
+        curator.create().creatingParentsIfNeeded().forPath(SCOPE + "/HOT");
+        curator.create().forPath(SCOPE + "/COLD");
+        reaper.reap();
+        Thread.sleep(MIN_IDLE_MS + 100);
+        lockAndRelease(SCOPE + "/HOT");
+
+        assertThat(reaper.reap()).isEqualTo(1);
+        assertThat(curator.checkExists().forPath(SCOPE + "/COLD")).isNull();
+        assertThat(curator.checkExists().forPath(SCOPE + "/HOT")).isNotNull();
+    }
+
+    @Test
+    void reapsKeysOnceIdleForAPass() throws Exception {
+        curator.create().creatingParentsIfNeeded().forPath(SCOPE + "/SO1");
+        reaper.reap();
+        lockAndRelease(SCOPE + "/SO1");
+        Thread.sleep(MIN_IDLE_MS + 100);
+        // locked before this pass started, idle since the previous one
+        assertThat(reaper.reap()).isZero();
+        Thread.sleep(MIN_IDLE_MS + 100);
+
+        // the scope emptied by the pass itself goes along
+        assertThat(reaper.reap()).isEqualTo(2);
+        assertThat(curator.checkExists().forPath(SCOPE)).isNull();
+        assertThat(curator.checkExists().forPath("/TENANT/SALE_ORDER")).isNotNull();
+    }
+
+    @Test
+    void keepsScopeLockedDuringPass() throws Exception {
+        curator.create().creatingParentsIfNeeded().forPath(SCOPE + "/SO1");
+        reaper.reap();
+        Thread.sleep(MIN_IDLE_MS + 100);
+        lockAndRelease(SCOPE + "/SO2");
+
+        assertThat(reaper.reap()).isEqualTo(1);
+        assertThat(curator.checkExists().forPath(SCOPE + "/SO1")).isNull();
+        assertThat(curator.checkExists().forPath(SCOPE + "/SO2")).isNotNull();
+    }
+
+    /* what a lock does to its key node */
+    private void lockAndRelease(String path) throws Exception {
+        String node = curator.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL_SEQUENTIAL).forPath(path + "/_c_lock-");
+        curator.delete().forPath(node);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import org.junit.jupiter.api.Test;
+
+class LockingClientTest extends ZooKeeperTestBase {
+
+    /* not started, the ensemble is down */
+    @Override
+    boolean isServerStarted() {
+        return false;
+    }
+
+    @Test
+    void warmUpRetriesUntilEnsembleIsUp() throws Exception {
+        CompletableFuture<Void> warmUp = client.warmUp(200);
+        Thread.sleep(500);
+        assertThat(warmUp).isNotDone();
+        assertThat(client.isReady()).isFalse();
+
+        server.start();
+        warmUp.get(10, TimeUnit.SECONDS);
+        assertThat(client.isReady()).isTrue();
+        assertThat(client.getLockingClient().checkExists().forPath(LockPaths.getNamespacePath(Level.TENANT, Namespace.SALE_ORDER))).isNotNull();
+    }
+
+    @Test
+    void closeFailsPendingWarmUp() throws Exception {
+        CompletableFuture<Void> warmUp = client.warmUp(200);
+        client.close();
+        assertThatThrownBy(() -> warmUp.get(1, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(client.isReady()).isFalse();
+    }
+}
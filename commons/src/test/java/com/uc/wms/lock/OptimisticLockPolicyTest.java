@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class OptimisticLockPolicyTest {
+
+    private static final long WINDOW_MS   = 100;
+
+    private static final long FALLBACK_MS = 200;
+
+    @Test
+    void fallsBackWhenWindowConflictRateExceedsThreshold() throws Exception {
+        OptimisticLockPolicy policy = newPolicy(4);
+        policy.onAttempt(true);
+        policy.onAttempt(true);
+        policy.onAttempt(false);
+        assertThat(policy.isActive()).isTrue();
+        Thread.sleep(WINDOW_MS);
+        // rolls the window over, 3 conflicts in 4 attempts
+        policy.onAttempt(true);
+        assertThat(policy.isActive()).isFalse();
+        Thread.sleep(FALLBACK_MS);
+        assertThat(policy.isActive()).isTrue();
+    }
+
+    @Test
+    void ignoresWindowsBelowMinSamples() throws Exception {
+        OptimisticLockPolicy policy = newPolicy(10);
+        for (int i = 0; i < 5; i++) {
+            policy.onAttempt(true);
+        }
+        Thread.sleep(WINDOW_MS);
+        policy.onAttempt(true);
+        assertThat(policy.isActive()).isTrue();
+    }
+
+    @Test
+    void ignoresConflictsOfPreviousWindows() throws Exception {
+        OptimisticLockPolicy policy = newPolicy(4);
+        policy.onAttempt(true);
+        policy.onAttempt(true);
+        Thread.sleep(WINDOW_MS);
+        // rolls over a window below minSamples, its conflicts are dropped
+        policy.onAttempt(false);
+        for (int i = 0; i < 4; i++) {
+            policy.onAttempt(false);
+        }
+        Thread.sleep(WINDOW_MS);
+        policy.onAttempt(true);
+        assertThat(policy.isActive()).isTrue();
+    }
+
+    @Test
+    void countsLastAttemptAmongMaxAttempts() {
+        OptimisticLockPolicy policy = newPolicy(4);
+        assertThat(policy.isLastAttempt(2)).isFalse();
+        assertThat(policy.isLastAttempt(3)).isTrue();
+        assertThatThrownBy(() -> new OptimisticLockPolicy("test", 0, 0, 0, 0.5, 1, WINDOW_MS, FALLBACK_MS)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void capsBackoff() throws Exception {
+        OptimisticLockPolicy policy = new OptimisticLockPolicy("test", 3, 1, 20, 0.5, 4, WINDOW_MS, FALLBACK_MS);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            policy.backoff(30);
+        }
+        assertThat((System.nanoTime() - start) / 1000000).isLessThan(10 * 20 + 100);
+    }
+
+    private static OptimisticLockPolicy newPolicy(int minSamples) {
+        return new OptimisticLockPolicy("test", 3, 0, 0, 0.5, minSamples, WINDOW_MS, FALLBACK_MS);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.LockRequest;
+import com.uc.wms.aspect.locking.Namespace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReentrantLockRegistryTest extends ZooKeeperTestBase {
+
+    private TestLockingService service;
+
+    private ExecutorService    executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new TestLockingService(client);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void nestedLockOnlyCountsHold() throws Exception {
+        String path = service.getLockPath(Namespace.SALE_ORDER, "SO1", Level.TENANT);
+        Lock outer = service.getLock(Namespace.SALE_ORDER, "SO1");
+        outer.lock();
+        List<String> nodes = getChildren(path);
+        Lock inner = service.getLock(Namespace.SALE_ORDER, "SO1");
+        assertThat(inner.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(getChildren(path)).isEqualTo(nodes);
+        assertThat(service.lockingClients.getReentrantLockRegistry().getHoldCount(path)).isEqualTo(2);
+        inner.unlock();
+        assertThat(getChildren(path)).isEqualTo(nodes);
+        assertThat(isLockedByOtherThread(Namespace.SALE_ORDER, "SO1")).isTrue();
+        outer.unlock();
+        assertThat(getChildren(path)).isEmpty();
+        assertThat(isLockedByOtherThread(Namespace.SALE_ORDER, "SO1")).isFalse();
+    }
+
+    @Test
+    void nestedMultiLockOnlyLocksFreePaths() throws Exception {
+        String heldPath = service.getLockPath(Namespace.SALE_ORDER, "SO2", Level.TENANT);
+        String freePath = service.getLockPath(Namespace.SALE_ORDER, "SO3", Level.TENANT);
+        Lock outer = service.getLock(Namespace.SALE_ORDER, "SO2");
+        outer.lock();
+        List<String> nodes = getChildren(heldPath);
+        Lock multi = service.getMultiLock(Arrays.asList(new LockRequest(Namespace.SALE_ORDER, "SO3", Level.TENANT), new LockRequest(Namespace.SALE_ORDER, "SO2", Level.TENANT)), "");
+        assertThat(multi.tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(getChildren(heldPath)).isEqualTo(nodes);
+        assertThat(getChildren(freePath)).hasSize(1);
+        // the outer lock goes first, the nested multi lock still holds both paths
+        outer.unlock();
+        assertThat(isLockedByOtherThread(Namespace.SALE_ORDER, "SO2")).isTrue();
+        assertThat(isLockedByOtherThread(Namespace.SALE_ORDER, "SO3")).isTrue();
+        multi.unlock();
+        assertThat(getChildren(heldPath)).isEmpty();
+        assertThat(getChildren(freePath)).isEmpty();
+    }
+
+    @Test
+    void multiLockHoldsUntilLastPathReleased() throws Exception {
+        Lock multi = service.getMultiLock(Arrays.asList(new LockRequest(Namespace.SALE_ORDER, "SO4", Level.TENANT), new LockRequest(Namespace.SALE_ORDER, "SO5", Level.TENANT)), "");
+        multi.lock();
+        Lock inner = service.getLock(Namespace.SALE_ORDER, "SO5");
+        inner.lock();
+        multi.unlock();
+        // SO4 and SO5 share the multi lock's nodes, held until the nested SO5 hold goes away
+        assertThat(isLockedByOtherThread(Namespace.SALE_ORDER, "SO4")).isTrue();
+        inner.unlock();
+        assertThat(isLockedByOtherThread(Namespace.SALE_ORDER, "SO4")).isFalse();
+        assertThat(isLockedByOtherThread(Namespace.SALE_ORDER, "SO5")).isFalse();
+    }
+
+    private boolean isLockedByOtherThread(Namespace namespace, String key) throws Exception {
+        return executor.submit(() -> {
+            Lock lock = service.getLock(namespace, key);
+            if (lock.tryLock(100, TimeUnit.MILLISECONDS)) {
+                lock.unlock();
+                return false;
+            }
+            return true;
+        }).get();
+    }
+
+    private List<String> getChildren(String path) throws Exception {
+        return client.getLockingClient().getChildren().forPath(path);
+    }
+}
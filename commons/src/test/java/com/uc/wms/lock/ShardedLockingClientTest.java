@@ -0,0 +1,167 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.codahale.metrics.Gauge;
+import com.uc.wms.annotation.Level;
+import com.uc.wms.aspect.locking.Namespace;
+import org.apache.curator.test.TestingServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardedLockingClientTest extends ZooKeeperTestBase {
+
+    private TestingServer       otherServer;
+
+    private List<LockingClient> shards;
+
+    private ExecutorService     executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        otherServer = newServer();
+        shards = Arrays.asList(client, newClient(otherServer));
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void publishesGaugesOfEveryEnsemble() throws Exception {
+        otherServer.stop();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (getConnectedGauge(shards.get(1)).getValue() != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(getConnectedGauge(shards.get(1)).getValue()).isZero();
+        assertThat(getConnectedGauge(shards.get(0)).getValue()).isEqualTo(1);
+
+        shards.get(1).close();
+        assertThat(getConnectedGauge(shards.get(1))).isNull();
+        assertThat(getConnectedGauge(shards.get(0))).isNotNull();
+    }
+
+    @Test
+    void keepsScopeOnOneEnsemble() {
+        ShardedLockingClient clients = new ShardedLockingClient(shards, 0, 0);
+        Set<LockingClient> owners = new HashSet<>();
+        for (int i = 0; i < 64; i++) {
+            String tenant = "tenant" + i;
+            LockingClient owner = clients.getClient(LockPaths.getLockPath(Level.TENANT, Namespace.SALE_ORDER, tenant, "SO1"));
+            assertThat(clients.getClient(LockPaths.getLockPath(Level.TENANT, Namespace.ITEM, tenant, "ITEM9"))).isSameAs(owner);
+            assertThat(clients.getClients(LockPaths.getLockPath(Level.TENANT, Namespace.PICKLIST, tenant, "PL1"))).containsExactly(owner);
+            owners.add(owner);
+        }
+        assertThat(owners).containsExactlyInAnyOrderElementsOf(shards);
+    }
+
+    @Test
+    void locksOnOwningEnsembleOnly() throws Exception {
+        ShardedLockingClient clients = new ShardedLockingClient(shards, 0, 0);
+        TestLockingService service = new TestLockingService(clients);
+        String path = service.getLockPath(Namespace.SALE_ORDER, "SO1", Level.TENANT);
+        LockingClient owner = clients.getClient(path);
+        LockingClient other = shards.get(0) == owner ? shards.get(1) : shards.get(0);
+        Lock lock = service.getLock(Namespace.SALE_ORDER, "SO1");
+        lock.lock();
+        assertThat(owner.getLockingClient().getChildren().forPath(path)).hasSize(1);
+        assertThat(other.getLockingClient().checkExists().forPath(path)).isNull();
+        lock.unlock();
+    }
+
+    @Test
+    void locksMovedPathsOnBothEnsemblesWhileDraining() throws Exception {
+        ShardedLockingClient clients = new ShardedLockingClient(shards, 1, TimeUnit.SECONDS.toMillis(1));
+        ShardedLockingClient formerClients = new ShardedLockingClient(shards.subList(0, 1), 0, 0);
+        String movedTenant = getTenantOwnedBy(new ShardedLockingClient(shards, 0, 0), shards.get(1));
+        String path = LockPaths.getLockPath(Level.TENANT, Namespace.SALE_ORDER, movedTenant, "SO1");
+        assertThat(clients.getClients(path)).containsExactlyInAnyOrderElementsOf(shards);
+
+        // a node still on the former configuration excludes the draining lock
+        Lock former = new DistributedLock(formerClients.getClient(path), path, "test");
+        former.lock();
+        Lock draining = new CompositeLock(Arrays.asList(new DistributedLock(shards.get(0), path, "test"), new DistributedLock(shards.get(1), path, "test")));
+        assertThat(executor.submit(() -> draining.tryLock(200, TimeUnit.MILLISECONDS)).get()).isFalse();
+        former.unlock();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (clients.isDraining()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+        assertThat(clients.getClients(path)).containsExactly(shards.get(1));
+    }
+
+    @Test
+    void reentersOnEveryEnsembleOfDrainingPath() throws Exception {
+        ShardedLockingClient clients = new ShardedLockingClient(shards, 1, TimeUnit.MINUTES.toMillis(1));
+        String movedTenant = getTenantOwnedBy(new ShardedLockingClient(shards, 0, 0), shards.get(1));
+        String path = LockPaths.getLockPath(Level.TENANT, Namespace.SALE_ORDER, movedTenant, "SO1");
+        Lock outer = clients.getReentrantLockRegistry().getLock(path, p -> new CompositeLock(Arrays.asList(new DistributedLock(shards.get(0), p, "test"), new DistributedLock(shards.get(1), p, "test"))));
+        outer.lock();
+        Lock inner = clients.getReentrantLockRegistry().getLock(path, p -> {
+            throw new AssertionError("nested lock built a distributed lock");
+        });
+        assertThat(inner.tryLock()).isTrue();
+        assertThat(clients.getReentrantLockRegistry().getHoldCount(path)).isEqualTo(2);
+        inner.unlock();
+        outer.unlock();
+        assertThat(shards.get(0).getThreadCountHoldingLocks()).isZero();
+        assertThat(shards.get(1).getThreadCountHoldingLocks()).isZero();
+    }
+
+    @Test
+    void coalescesPerEnsemble() throws Exception {
+        ShardedLockingClient clients = new ShardedLockingClient(shards, 0, 0);
+        for (LockingClient shard : shards) {
+            shard.setLockCoalescing(true, 60000, CoalescingLockManager.DEFAULT_MAX_HANDOFFS);
+        }
+        TestLockingService service = new TestLockingService(clients);
+        String path = service.getLockPath(Namespace.SALE_ORDER, "SO1", Level.TENANT);
+        LockingClient owner = clients.getClient(path);
+        Lock lock = service.getLock(Namespace.SALE_ORDER, "SO1");
+        lock.lock();
+        lock.unlock();
+        // lingering on the owning ensemble, which is where the next lock of the path picks it up
+        assertThat(owner.getCoalescingLockManager().getActivePathCount()).isEqualTo(1);
+        for (LockingClient shard : shards) {
+            if (shard != owner) {
+                assertThat(shard.getCoalescingLockManager().getActivePathCount()).isZero();
+            }
+        }
+    }
+
+    private static String getTenantOwnedBy(ShardedLockingClient clients, LockingClient owner) {
+        for (int i = 0;; i++) {
+            String tenant = "tenant" + i;
+            if (clients.getClient(LockPaths.getLockPath(Level.TENANT, Namespace.SALE_ORDER, tenant, "SO1")) == owner) {
+                return tenant;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Gauge<Integer> getConnectedGauge(LockingClient shard) {
+        return (Gauge<Integer>) LockMetrics.getRegistry().getGauges().get("wms.lock.client." + LockPaths.sanitizeKey(shard.getDestination()) + ".connected");
+    }
+}
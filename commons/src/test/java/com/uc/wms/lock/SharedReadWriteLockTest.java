@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SharedReadWriteLockTest extends ZooKeeperTestBase {
+
+    private static final String PATH = "/TENANT/SALE_ORDER/tenant1/SO1";
+
+    private LockingClient       otherClient;
+
+    private ExecutorService     executor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        otherClient = newClient();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void readersShareOneNode() throws Exception {
+        SharedReadWriteLock lock = new SharedReadWriteLock(client, PATH);
+        lock.readLock().lock();
+        assertThat(executor.submit(() -> {
+            boolean acquired = new SharedReadWriteLock(client, PATH).readLock().tryLock(1, TimeUnit.SECONDS);
+            return acquired && client.getLockingClient().getChildren().forPath(PATH).size() == 1;
+        }).get()).isTrue();
+        assertThat(new SharedReadWriteLock(otherClient, PATH).writeLock().tryLock()).isFalse();
+    }
+
+    @Test
+    void writerReadsUnderItsWriteLock() throws Exception {
+        SharedReadWriteLock lock = new SharedReadWriteLock(client, PATH);
+        lock.writeLock().lock();
+        assertThat(lock.readLock().tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(new SharedReadWriteLock(client, PATH).readLock().tryLock(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.submit(() -> new SharedReadWriteLock(client, PATH).readLock().tryLock()).get()).isFalse();
+        assertThat(new SharedReadWriteLock(otherClient, PATH).readLock().tryLock()).isFalse();
+
+        assertThatThrownBy(lock.writeLock()::unlock).isInstanceOf(IllegalMonitorStateException.class);
+        lock.readLock().unlock();
+        lock.readLock().unlock();
+        lock.writeLock().unlock();
+
+        assertThat(new SharedReadWriteLock(otherClient, PATH).writeLock().tryLock(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void rejectsUpgrade() throws Exception {
+        SharedReadWriteLock lock = new SharedReadWriteLock(client, PATH);
+        lock.readLock().lock();
+        assertThatThrownBy(() -> lock.writeLock().tryLock(1, TimeUnit.SECONDS)).isInstanceOf(IllegalMonitorStateException.class);
+        lock.readLock().unlock();
+        assertThat(lock.writeLock().tryLock(1, TimeUnit.SECONDS)).isTrue();
+        lock.writeLock().unlock();
+        assertThat(client.getReadLeaseManager().getActivePathCount()).isZero();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import com.uc.wms.annotation.Level;
+
+/**
+ * Locking service of a request scoped to facility {@value #FACILITY} of tenant {@value #TENANT}, or to the given ones.
+ */
+class TestLockingService extends AbstractLockingService {
+
+    static final String  TENANT   = "tenant1";
+
+    static final String  FACILITY = "facility1";
+
+    private final String tenant;
+
+    private final String facility;
+
+    TestLockingService(LockingClient lockingClient) {
+        this(lockingClient, TENANT, FACILITY);
+    }
+
+    TestLockingService(LockingClient lockingClient, String tenant, String facility) {
+        super(lockingClient);
+        this.tenant = tenant;
+        this.facility = facility;
+    }
+
+    TestLockingService(ShardedLockingClient lockingClients) {
+        super(lockingClients);
+        this.tenant = TENANT;
+        this.facility = FACILITY;
+    }
+
+    @Override
+    protected String getScope(Level level) {
+        switch (level) {
+            case GLOBAL:
+                return "";
+            case TENANT:
+                return tenant;
+            default:
+                return tenant + LockPaths.SEPARATOR + facility;
+        }
+    }
+}
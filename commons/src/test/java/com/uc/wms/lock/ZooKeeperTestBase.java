@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Unicommerce Technologies (P) Limited . All Rights Reserved.
+ * UNICOMMERCE TECHONOLOGIES PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ * @author namanindranil
+ */
+
+package com.uc.wms.lock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.curator.test.TestingServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * Zookeeper ensemble of a test: {@link #server}, started before each test, with {@link #client} connected to it.
+ * Further clients, e.g. standing for another JVM, and ensembles come from {@link #newClient} and {@link #newServer}
+ * and are closed along with them after the test's own clean up.
+ */
+abstract class ZooKeeperTestBase {
+
+    private final List<TestingServer> servers = new ArrayList<>();
+
+    private final List<LockingClient> clients = new ArrayList<>();
+
+    TestingServer                     server;
+
+    LockingClient                     client;
+
+    @BeforeEach
+    void startZooKeeper() throws Exception {
+        server = newServer();
+        client = newClient();
+    }
+
+    @AfterEach
+    void stopZooKeeper() throws Exception {
+        for (LockingClient created : clients) {
+            created.close();
+        }
+        for (TestingServer created : servers) {
+            created.close();
+        }
+    }
+
+    /**
+     * @return false for a test starting with its ensemble down
+     */
+    boolean isServerStarted() {
+        return true;
+    }
+
+    TestingServer newServer() throws Exception {
+        TestingServer created = new TestingServer(isServerStarted());
+        servers.add(created);
+        return created;
+    }
+
+    LockingClient newClient() {
+        return newClient(server);
+    }
+
+    LockingClient newClient(TestingServer ensemble) {
+        LockingClient created = new LockingClient(ensemble.getConnectString(), 5000, 5000);
+        clients.add(created);
+        return created;
+    }
+}